@@ -0,0 +1,82 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * BOM creation in {@link CreateBomMojo} over synthetic reactors,
+ * including writing the BOM file into a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateBomMojoBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int reactorSize;
+
+    @Param({"maven", "alphabetical"})
+    String sortOrder;
+
+    @Param({"false", "true"})
+    boolean streamingWriter;
+
+    private Path tempDir;
+    private MavenSession session;
+    private CreateBomMojo mojo;
+
+    @Setup
+    public void setUp() throws IOException, MojoExecutionException {
+        tempDir = Files.createTempDirectory("create-bom-benchmark");
+        session = SyntheticReactor.createSession(SyntheticReactor.createProjects(reactorSize));
+        mojo = new CreateBomMojo();
+        mojo.setLog(SyntheticReactor.quietLog());
+        mojo.mavenSession = session;
+        mojo.setIncludes(new ArrayList<String>());
+        mojo.setExcludes(new ArrayList<String>());
+        mojo.sortOrder = sortOrder;
+        mojo.includeProjects = true;
+        mojo.streamingWriter = streamingWriter;
+        mojo.bomFilepath = tempDir.resolve("bom/pom.xml").toString();
+        mojo.bomGroupId = "com.example";
+        mojo.bomArtifactId = "bom";
+        mojo.bomVersion = "1.0.0";
+        mojo.bomName = "Benchmark BOM";
+        mojo.validateAndPrepareParameters();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void createBom() throws MojoExecutionException {
+        mojo.createBom(session);
+    }
+}
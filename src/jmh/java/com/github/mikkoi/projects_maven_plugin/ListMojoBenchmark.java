@@ -0,0 +1,65 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting and listing in {@link ListMojo} over synthetic reactors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListMojoBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int reactorSize;
+
+    @Param({"maven", "alphabetic"})
+    String sortOrder;
+
+    private List<MavenProject> projects;
+    private ListMojo mojo;
+
+    @Setup
+    public void setUp() throws MojoExecutionException {
+        projects = SyntheticReactor.createProjects(reactorSize);
+        mojo = new ListMojo();
+        mojo.setLog(SyntheticReactor.quietLog());
+        mojo.setIncludes(new ArrayList<String>());
+        mojo.setExcludes(new ArrayList<String>());
+        mojo.setSortOrder(sortOrder);
+        mojo.setPrintFormat("{groupId}:{artifactId}:{version}:{packaging} {name} {absPath}");
+        mojo.validateAndPrepareParameters();
+    }
+
+    @Benchmark
+    public void formatProject(Blackhole blackhole) {
+        for (MavenProject project : projects) {
+            blackhole.consume(mojo.formatProject(project));
+        }
+    }
+
+    @Benchmark
+    public void list(Blackhole blackhole) {
+        mojo.list(projects).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching and sorting in {@link MojoUtilities} over synthetic reactors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MojoUtilitiesBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int reactorSize;
+
+    private List<MavenProject> projects;
+    private List<String> includes;
+    private List<String> excludes;
+    private List<String> patterns;
+    private ProjectMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        projects = SyntheticReactor.createProjects(reactorSize);
+        includes = Arrays.asList("com.example.*:*", "reactor");
+        excludes = Arrays.asList("*:module-1*:war", "com.example.group7:*", "module-42");
+        patterns = new ArrayList<>(includes);
+        patterns.addAll(excludes);
+        matcher = ProjectMatcher.compile(includes, excludes);
+    }
+
+    @Benchmark
+    public int isIncluded() {
+        int included = 0;
+        for (MavenProject project : projects) {
+            if (MojoUtilities.isIncluded(includes, excludes, project)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public int isIncludedPrecompiled() {
+        int included = 0;
+        for (MavenProject project : projects) {
+            if (matcher.isIncluded(project)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public int convertStringForMatching() {
+        int length = 0;
+        for (int i = 0; i < projects.size(); i++) {
+            length += MojoUtilities.convertStringForMatching(patterns.get(i % patterns.size())).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public List<MavenProject> sortAlphabetic() {
+        List<MavenProject> sorted = new ArrayList<>(projects);
+        Collections.sort(sorted, MojoUtilities.getMavenProjectComparator("alphabetic"));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<MavenProject> sortAlphabeticByKey() {
+        return MojoUtilities.selectProjects(projects, project -> true, SortOrder.ALPHABETIC).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<MavenProject> sortMaven() {
+        List<MavenProject> sorted = new ArrayList<>(projects);
+        Collections.sort(sorted, MojoUtilities.getMavenProjectComparator("maven"));
+        return sorted;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Classify 1,000 project ids against include and exclude lists of different sizes.
+ * Compares the stream-based matching (one regular expression compiled per pattern and id)
+ * with the precompiled {@link ProjectMatcher} in its linear and automaton modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectMatcherBenchmark {
+
+    private static final int PROJECT_COUNT = 1_000;
+
+    @Param({"10", "100", "1000"})
+    int patternCount;
+
+    private List<String> includes;
+    private List<String> excludes;
+    private List<String> projectIds;
+    private ProjectMatcher linear;
+    private ProjectMatcher automaton;
+
+    @Setup
+    public void setUp() {
+        includes = Collections.singletonList("*");
+        excludes = new ArrayList<>();
+        for (int i = 0; i < patternCount; i++) {
+            switch (i % 3) {
+                case 0:
+                    excludes.add("com.example.group" + i + ":service-" + i);
+                    break;
+                case 1:
+                    excludes.add("service-" + i + "-*");
+                    break;
+                default:
+                    excludes.add("*-client-" + i);
+                    break;
+            }
+        }
+        projectIds = new ArrayList<>();
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            projectIds.add("com.example.group" + i + ":service-" + i + "-api:jar");
+        }
+        linear = ProjectMatcher.compile(includes, excludes, ProjectMatcher.Mode.LINEAR);
+        automaton = ProjectMatcher.compile(includes, excludes, ProjectMatcher.Mode.AUTOMATON);
+    }
+
+    @Benchmark
+    public int streamBased() {
+        int included = 0;
+        for (String projectId : projectIds) {
+            Predicate<String> predicateForProjectId = s -> projectId.matches(MojoUtilities.convertStringForMatching(s));
+            if (includes.stream().anyMatch(predicateForProjectId) && excludes.stream().noneMatch(predicateForProjectId)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public int linear() {
+        int included = 0;
+        for (String projectId : projectIds) {
+            if (linear.isIncluded(projectId)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public int automaton() {
+        int included = 0;
+        for (String projectId : projectIds) {
+            if (automaton.isIncluded(projectId)) {
+                included++;
+            }
+        }
+        return included;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link ReactorIndex} and querying it over synthetic reactors.
+ * The queries start from module-1, which every other module depends on transitively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactorIndexBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int reactorSize;
+
+    private List<MavenProject> projects;
+    private ReactorIndex index;
+    private BitSet first;
+
+    @Setup
+    public void setUp() {
+        projects = SyntheticReactor.createProjects(reactorSize);
+        index = ReactorIndex.of(projects);
+        first = index.select(project -> "module-1".equals(project.getArtifactId()));
+    }
+
+    @Benchmark
+    public ReactorIndex build() {
+        return ReactorIndex.of(projects);
+    }
+
+    @Benchmark
+    public BitSet dependents() {
+        return index.dependents(first, false);
+    }
+
+    @Benchmark
+    public BitSet dependentsTransitive() {
+        return index.dependents(first, true);
+    }
+
+    @Benchmark
+    public BitSet dependenciesTransitive() {
+        return index.dependencies(index.dependents(first, false), true);
+    }
+}
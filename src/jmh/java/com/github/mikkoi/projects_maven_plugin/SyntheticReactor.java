@@ -0,0 +1,134 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic reactors of MavenProject objects for benchmarks.
+ * <p>
+ * The first project is the root project (packaging pom), the others are modules
+ * in 50 groups with a mix of jar, war and pom packaging.
+ * Every module depends on two earlier modules.
+ * The modules are shuffled with a fixed seed, so sorting has work to do
+ * but every run gets the same reactor.
+ */
+final class SyntheticReactor {
+
+    static final String ROOT_DIR = "/work/reactor";
+    private static final String VERSION = "1.0.0-SNAPSHOT";
+    private static final String[] PACKAGINGS = {"jar", "jar", "jar", "war", "pom"};
+
+    private SyntheticReactor() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Create projects.
+     *
+     * @param size Number of projects, including the root project
+     * @return the projects, root project first
+     */
+    static List<MavenProject> createProjects(int size) {
+        MavenProject root = createProject("com.example", "reactor", "pom", new File(ROOT_DIR, "pom.xml"));
+        root.setExecutionRoot(true);
+        root.getBuild().setDirectory(ROOT_DIR + "/target");
+        List<MavenProject> modules = new ArrayList<>(size);
+        for (int i = 1; i < size; i++) {
+            String artifactId = "module-" + i;
+            MavenProject module = createProject(
+                    "com.example.group" + (i % 50),
+                    artifactId,
+                    PACKAGINGS[i % PACKAGINGS.length],
+                    new File(ROOT_DIR + "/modules/" + artifactId, "pom.xml"));
+            module.setParent(root);
+            for (int upstream : new int[] {i / 2, i / 3}) {
+                if (upstream > 0) {
+                    Dependency dependency = new Dependency();
+                    dependency.setGroupId("com.example.group" + (upstream % 50));
+                    dependency.setArtifactId("module-" + upstream);
+                    dependency.setVersion(VERSION);
+                    module.getDependencies().add(dependency);
+                }
+            }
+            modules.add(module);
+        }
+        Collections.shuffle(modules, new Random(size));
+        List<MavenProject> projects = new ArrayList<>(size);
+        projects.add(root);
+        projects.addAll(modules);
+        return projects;
+    }
+
+    /**
+     * Create a session with the projects, the first one is the current project.
+     *
+     * @param projects Projects
+     * @return the session
+     */
+    @SuppressWarnings("deprecation")
+    static MavenSession createSession(List<MavenProject> projects) {
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+        session.setProjects(projects);
+        session.setCurrentProject(projects.get(0));
+        return session;
+    }
+
+    /**
+     * Log which prints only warnings and errors,
+     * so that the benchmark output is not flooded.
+     *
+     * @return the log
+     */
+    static Log quietLog() {
+        return new SystemStreamLog() {
+            @Override
+            public boolean isInfoEnabled() {
+                return false;
+            }
+
+            @Override
+            public void info(CharSequence content) {
+                // Quiet
+            }
+
+            @Override
+            public void info(CharSequence content, Throwable error) {
+                // Quiet
+            }
+
+            @Override
+            public void info(Throwable error) {
+                // Quiet
+            }
+        };
+    }
+
+    private static MavenProject createProject(String groupId, String artifactId, String packaging, File pomFile) {
+        MavenProject project = new MavenProject();
+        project.setGroupId(groupId);
+        project.setArtifactId(artifactId);
+        project.setVersion(VERSION);
+        project.setPackaging(packaging);
+        project.setName("Module " + artifactId);
+        project.setDescription("Synthetic module " + artifactId + " for benchmarks.");
+        project.setFile(pomFile);
+        project.setBuild(new Build());
+        project.setArtifact(new DefaultArtifact(groupId, artifactId, VERSION, "compile", packaging, null,
+                new DefaultArtifactHandler(packaging)));
+        return project;
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Build extension for goal add-internal.
+ * <p>
+ * When the plugin is declared with {@code <extensions>true</extensions>},
+ * Maven calls this participant after reading all the projects
+ * and before it builds the project dependency graph.
+ * The dependencies of every add-internal execution are then added
+ * to the project models here, in one thread, so Maven sees them
+ * when it orders the projects, also in a parallel build (-T).
+ * The goal itself does nothing for a project handled here.
+ */
+@Named("projects-add-internal")
+@Singleton
+public class AddInternalLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+    /**
+     * Context key marking a project whose dependencies were added by this participant.
+     */
+    static final String CONTEXT_KEY = AddInternalLifecycleParticipant.class.getName() + ".added";
+
+    private static final String PLUGIN_GROUP_ID = "com.github.mikkoi";
+    private static final String PLUGIN_ARTIFACT_ID = "projects-maven-plugin";
+    private static final String GOAL = "add-internal";
+
+    private final Logger logger = LoggerFactory.getLogger(AddInternalLifecycleParticipant.class);
+
+    @Override
+    public void afterProjectsRead(MavenSession session) throws MavenExecutionException {
+        Properties properties = new Properties();
+        properties.putAll(session.getSystemProperties());
+        properties.putAll(session.getUserProperties());
+        List<MavenProject> projects = session.getProjects();
+        for (MavenProject project : projects) {
+            for (Xpp3Dom configuration : findConfigurations(project)) {
+                if (isSkipped(configuration, properties)) {
+                    continue;
+                }
+                ProjectMatcher matcher = ProjectMatcher.compileOrAll(
+                        readList(configuration, "includes", "projects.addInternal.includes", properties),
+                        readList(configuration, "excludes", "projects.addInternal.excludes", properties));
+                List<DependencyRule> rules = readRules(configuration);
+                DependencyRule defaults = new DependencyRule("*",
+                        readValue(configuration, "scope", "projects.addInternal.scope", "compile", properties),
+                        readValue(configuration, "type", "projects.addInternal.type", null, properties),
+                        readValue(configuration, "classifier", "projects.addInternal.classifier", null, properties));
+                List<MavenProject> sortedProjects;
+                try {
+                    AddInternalMojo.compileRules(rules, defaults.getScope());
+                    sortedProjects = AddInternalMojo.sortProjects(projects,
+                            readValue(configuration, "sortOrder", "projects.addInternal.sortOrder", "maven", properties),
+                            session.getProjectDependencyGraph());
+                } catch (IllegalArgumentException e) {
+                    throw new MavenExecutionException("Failure in parameter 'dependencyRules', 'scope' or 'sortOrder' of goal add-internal. "
+                            + e.getMessage(), project.getFile());
+                }
+                List<Dependency> dependencies = AddInternalMojo.internalDependencies(project, sortedProjects, matcher, rules, defaults);
+                if (Boolean.parseBoolean(readValue(configuration, "transitiveReduction", "projects.addInternal.transitiveReduction", "false", properties))) {
+                    int candidates = dependencies.size();
+                    dependencies = TransitiveReduction.reduce(dependencies, projects);
+                    logger.info("Transitive reduction: pruned {} of {} dependencies of project {}",
+                            candidates - dependencies.size(), candidates, project.getId());
+                }
+                project.getModel().getDependencies().addAll(dependencies);
+                project.setContextValue(CONTEXT_KEY, Boolean.TRUE);
+                logger.info("Add {} dependencies to project {}", dependencies.size(), project.getId());
+                if (logger.isDebugEnabled()) {
+                    dependencies.forEach(dependency -> logger.debug("    {}", dependency));
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the configurations of the add-internal executions of this plugin in a project.
+     * The execution configuration is merged with the plugin configuration.
+     *
+     * @param project Project
+     * @return the configurations, empty if the goal is not used
+     */
+    static List<Xpp3Dom> findConfigurations(MavenProject project) {
+        List<Xpp3Dom> configurations = new ArrayList<>();
+        for (Plugin plugin : project.getBuildPlugins()) {
+            if (!PLUGIN_GROUP_ID.equals(plugin.getGroupId()) || !PLUGIN_ARTIFACT_ID.equals(plugin.getArtifactId())) {
+                continue;
+            }
+            for (PluginExecution execution : plugin.getExecutions()) {
+                if (execution.getGoals().contains(GOAL)) {
+                    Xpp3Dom configuration = Xpp3Dom.mergeXpp3Dom(
+                            copy((Xpp3Dom) execution.getConfiguration()), copy((Xpp3Dom) plugin.getConfiguration()));
+                    configurations.add(configuration == null ? new Xpp3Dom("configuration") : configuration);
+                }
+            }
+        }
+        return configurations;
+    }
+
+    private static Xpp3Dom copy(Xpp3Dom dom) {
+        return dom == null ? null : new Xpp3Dom(dom);
+    }
+
+    /**
+     * Is the execution skipped, either in configuration or with a property.
+     *
+     * @param configuration Execution configuration
+     * @param properties    User and system properties
+     * @return true if skipped
+     */
+    static boolean isSkipped(Xpp3Dom configuration, Properties properties) {
+        Xpp3Dom skip = configuration.getChild("skip");
+        if (skip != null && skip.getValue() != null) {
+            return Boolean.parseBoolean(skip.getValue().trim());
+        }
+        return Boolean.parseBoolean(properties.getProperty("projects.addInternal.skip"))
+                || Boolean.parseBoolean(properties.getProperty("projects.skip"));
+    }
+
+    /**
+     * Read a list parameter, either from configuration or from a comma separated property.
+     *
+     * @param configuration Execution configuration
+     * @param name          Parameter name
+     * @param property      Property name
+     * @param properties    User and system properties
+     * @return the list, empty if not set
+     */
+    static List<String> readList(Xpp3Dom configuration, String name, String property, Properties properties) {
+        Xpp3Dom parameter = configuration.getChild(name);
+        List<String> items = new ArrayList<>();
+        if (parameter != null && parameter.getChildCount() > 0) {
+            for (Xpp3Dom child : parameter.getChildren()) {
+                addItems(items, child.getValue());
+            }
+        } else if (parameter != null) {
+            addItems(items, parameter.getValue());
+        } else {
+            addItems(items, properties.getProperty(property));
+        }
+        return items.isEmpty() ? Collections.<String>emptyList() : items;
+    }
+
+    /**
+     * Read a single value parameter, either from configuration or from a property.
+     *
+     * @param configuration Execution configuration
+     * @param name          Parameter name
+     * @param property      Property name
+     * @param defaultValue  Value if not set
+     * @param properties    User and system properties
+     * @return the value
+     */
+    static String readValue(Xpp3Dom configuration, String name, String property, String defaultValue, Properties properties) {
+        Xpp3Dom parameter = configuration.getChild(name);
+        String value = parameter != null ? parameter.getValue() : properties.getProperty(property);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Read the dependency rules.
+     *
+     * @param configuration Execution configuration
+     * @return the rules, empty if none
+     */
+    static List<DependencyRule> readRules(Xpp3Dom configuration) {
+        Xpp3Dom parameter = configuration.getChild("dependencyRules");
+        if (parameter == null) {
+            return Collections.emptyList();
+        }
+        List<DependencyRule> rules = new ArrayList<>();
+        Properties none = new Properties();
+        for (Xpp3Dom child : parameter.getChildren()) {
+            rules.add(new DependencyRule(
+                    readValue(child, "pattern", "", null, none),
+                    readValue(child, "scope", "", null, none),
+                    readValue(child, "type", "", null, none),
+                    readValue(child, "classifier", "", null, none)));
+        }
+        return rules;
+    }
+
+    private static void addItems(List<String> items, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.github.mikkoi.projects_maven_plugin;
 
+import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Add one or more dependencies into the project.
@@ -54,7 +58,7 @@ public class AddInternalMojo extends BaseMojo {
     private boolean errorIfUnknownProject;
 
     /**
-     * Sorting order: maven | alphabetic, default: maven
+     * Order of the added dependencies: maven | alphabetic | topological | reverse-topological | waves, default: maven
      */
     @Parameter(property = "projects" + ".addInternal" + ".sortOrder", defaultValue = "maven")
     String sortOrder;
@@ -65,130 +69,206 @@ public class AddInternalMojo extends BaseMojo {
     @Parameter(property = "projects" + ".addInternal" + ".printFormat", defaultValue = "{groupId}:{artifactId}")
     private String printFormat;
 
+    /**
+     * Scope of the added dependencies: compile | provided | runtime | test, default: compile
+     */
+    @Parameter(property = "projects" + ".addInternal" + ".scope", defaultValue = "compile")
+    String scope;
+
+    /**
+     * Type of the added dependencies, e.g. pom. Default: jar
+     */
+    @Parameter(property = "projects" + ".addInternal" + ".type")
+    String type;
+
+    /**
+     * Classifier of the added dependencies. Default: no classifier
+     */
+    @Parameter(property = "projects" + ".addInternal" + ".classifier")
+    String classifier;
+
+    /**
+     * Rules for the scope, type and classifier of individual projects.
+     * The first rule whose pattern matches the project is used,
+     * the values it does not set come from parameters scope, type and classifier.
+     * See {@link DependencyRule}.
+     */
+    @Parameter
+    List<DependencyRule> dependencyRules;
+
+    /**
+     * Add only the projects which are not already reachable
+     * through another added project with the same scope.
+     * The classpath stays the same, but there are fewer direct dependencies.
+     * See {@link TransitiveReduction}. Default: false
+     */
+    @Parameter(property = "projects" + ".addInternal" + ".transitiveReduction", defaultValue = "false")
+    boolean transitiveReduction;
+
+    /**
+     * Includes and excludes compiled for matching.
+     */
+    private ProjectMatcher projectMatcher;
+
     /**
      * Validate parameters provided via properties
      * either on the command line or using configuration element in pom.
      */
-    private void validateParameters() {
+    private void validateParameters() throws MojoExecutionException {
         getLog().debug("includes=" + includes);
         getLog().debug("excludes=" + excludes);
+        getLog().debug("dependencyRules=" + dependencyRules);
+        projectMatcher = ProjectMatcher.compileOrAll(includes, excludes);
+        resolveSortOrder(sortOrder);
+        try {
+            compileRules(dependencyRules, scope);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Failure in parameter 'dependencyRules' or 'scope'. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sort the projects in the order their dependencies are added.
+     *
+     * @param projects  Projects in Maven order
+     * @param sortOrder Sort order, see {@link SortOrder#of(String)}
+     * @param graph     Project dependency graph, for the sort orders which need it
+     * @return the projects in sort order
+     */
+    static List<MavenProject> sortProjects(List<MavenProject> projects, String sortOrder, ProjectDependencyGraph graph) {
+        return MojoUtilities.selectProjects(projects, project -> true, SortOrder.of(sortOrder), graph).collect(Collectors.toList());
+    }
+
+    /**
+     * Validate the default scope and the rules, and compile the rules.
+     *
+     * @param rules Rules, may be null
+     * @param scope Default scope
+     * @throws IllegalArgumentException if the scope or a rule is not valid
+     */
+    static void compileRules(List<DependencyRule> rules, String scope) {
+        DependencyRule.validateScope(scope);
+        if (rules != null) {
+            for (DependencyRule rule : rules) {
+                rule.compile();
+            }
+        }
     }
 
     /**
      * Add internal projects to the current project's dependencies.
+     * Each added dependency is logged as it is added.
      *
      * @param projects      List of MavenProject objects.
-     * @return strings      List of strings ready for writing out.
      */
-    public List<String> addInternal(List<MavenProject> projects) {
+    public void addInternal(List<MavenProject> projects) {
         getLog().debug("Begin of projects:add-internal");
-        List<String> rows = new ArrayList<>();
         MavenProject currentProject = this.mavenSession.getCurrentProject();
         getLog().debug(String.format("Current Project: %s:%s", currentProject.getGroupId(), currentProject.getArtifactId()));
 
         getLog().debug("Iterate through all projects in Maven Dependency Graph, i.e. the build.");
-        mavenSession.getProjectDependencyGraph().getSortedProjects().forEach(project -> {
-            getLog().debug(String.format("    %s:%s:%s",
-                    project.getGroupId(),
-                    project.getArtifactId(),
-                    project.getVersion()
+        ProjectMatcher matcher = this.projectMatcher != null ? this.projectMatcher : ProjectMatcher.compileOrAll(this.includes, this.excludes);
+        List<MavenProject> sortedProjects = mavenSession.getProjectDependencyGraph().getSortedProjects();
+        List<Dependency> dependencies = internalDependencies(currentProject, sortProjects(sortedProjects, sortOrder, mavenSession.getProjectDependencyGraph()), matcher,
+                dependencyRules, new DependencyRule("*", scope, type, classifier));
+        if (transitiveReduction) {
+            int candidates = dependencies.size();
+            dependencies = TransitiveReduction.reduce(dependencies, sortedProjects);
+            getLog().info(String.format("Transitive reduction: pruned %d of %d dependencies of project %s",
+                    candidates - dependencies.size(), candidates, currentProject.getId()));
+        }
+        currentProject.getModel().getDependencies().addAll(dependencies);
+        for (Dependency dependency : dependencies) {
+            getLog().info(String.format("Add dependency %s to project %s",
+                    dependency.getManagementKey() + ':' + dependency.getVersion() + ':' + dependency.getScope(),
+                    currentProject.getId()
             ));
-            if(!project.getArtifactId().equals(currentProject.getArtifactId()) && isIncluded(project)) {
-                Dependency dependency = new Dependency();
-                dependency.setGroupId(project.getGroupId());
-                dependency.setArtifactId(project.getArtifactId());
-                dependency.setVersion(project.getVersion());
-                dependency.setScope("compile");
-                @SuppressWarnings("unchecked") List<Dependency> currentProjectDependencies = currentProject.getDependencies();
-                currentProjectDependencies.add(dependency);
-                getLog().info(String.format("Add dependency %s:%s:%s to project %s",
-                        project.getGroupId(),
-                        project.getArtifactId(),
-                        project.getVersion(),
-                        currentProject.getId()
-                ));
-            }
-        });
+        }
         getLog().debug("End of iterate");
 
         getLog().debug(":End of projects:add-internal");
-        return rows;
     }
 
     /**
-     * Create a comparator which compares Maven project groupId and artifactId
-     * for alphabetical listing.
+     * Create the dependencies to add to a project:
+     * one for every included project in the build, except the project itself,
+     * projects which depend on the project (that would be a cycle)
+     * and projects which the project already depends on.
+     * Projects are identified by {@link ProjectKey}.
+     * The scope, type and classifier come from the defaults,
+     * overridden by the first matching rule.
+     * Dependencies are compared by their management key, groupId:artifactId:type[:classifier],
+     * using a set built once from the existing dependencies.
+     * This does not change any project, so it is used both by this goal
+     * and by {@link AddInternalLifecycleParticipant}.
      *
-     * @param sortOrder "random" / "alphabetic"
-     * @return the comparator
-     */
-    static Comparator<MavenProject> getMavenProjectComparator(String sortOrder) {
-        Comparator<MavenProject> comparator;
-        if ("maven".equals(sortOrder)) {
-            comparator = new Comparator<MavenProject>() {
-                @Override
-                public int compare(MavenProject o1, MavenProject o2) {
-                    return 0;
+     * @param currentProject Project to add dependencies to
+     * @param projects       All projects in the build
+     * @param matcher        Compiled includes and excludes
+     * @param rules          Rules, may be null
+     * @param defaults       Default scope, type and classifier
+     * @return the dependencies, in the order of projects
+     */
+    static List<Dependency> internalDependencies(MavenProject currentProject, List<MavenProject> projects, ProjectMatcher matcher,
+                                                 List<DependencyRule> rules, DependencyRule defaults) {
+        List<Dependency> existing = currentProject.getModel().getDependencies();
+        Set<String> keys = new HashSet<>(existing.size() + projects.size());
+        for (Dependency dependency : existing) {
+            keys.add(dependency.getManagementKey());
+        }
+        Set<ProjectKey> dependents = dependentProjects(currentProject, projects);
+        List<Dependency> dependencies = new ArrayList<>();
+        for (MavenProject project : projects) {
+            if (!dependents.contains(ProjectKey.of(project)) && matcher.isIncluded(project)) {
+                Dependency dependency = new Dependency();
+                dependency.setGroupId(project.getGroupId());
+                dependency.setArtifactId(project.getArtifactId());
+                dependency.setVersion(project.getVersion());
+                defaults.applyTo(dependency);
+                DependencyRule rule = findRule(rules, project);
+                if (rule != null) {
+                    rule.applyTo(dependency);
                 }
-            };
-        } else {
-            comparator = (o1, o2) -> {
-                String o1GroupId = o1.getGroupId();
-                String o2groupId = o2.getGroupId();
-                String o1artifactId = o1.getArtifactId();
-                String o2artifactId = o2.getArtifactId();
-                int r = o1GroupId.compareTo(o2groupId);
-                if (r != 0) {
-                    return r;
+                if (keys.add(dependency.getManagementKey())) {
+                    dependencies.add(dependency);
                 }
-                return o1artifactId.compareTo(o2artifactId);
-            };
+            }
         }
-        return comparator;
+        return dependencies;
     }
 
     /**
-     * Convert string for matching.
-     * Prepare string for use with Java's regexp libraries.
+     * Find the projects which depend on a project, directly or transitively,
+     * through the dependencies declared between the projects in the build.
      *
-     * @param s String
-     * @return converted string
-     */
-    static String convertStringForMatching(String s) {
-        String t = s.replace(".", "\\.");
-        t = t.replace("*", ".*");
-        if (!t.contains(":")) {
-            t = ".*:" + t;
+     * @param currentProject Project
+     * @param projects       All projects in the build
+     * @return the keys of the dependent projects, including the project itself
+     */
+    static Set<ProjectKey> dependentProjects(MavenProject currentProject, List<MavenProject> projects) {
+        Set<ProjectKey> found = new HashSet<>();
+        found.add(ProjectKey.of(currentProject));
+        ReactorIndex index = ReactorIndex.of(projects);
+        int id = index.id(currentProject);
+        if (id >= 0) {
+            BitSet current = new BitSet(index.size());
+            current.set(id);
+            for (MavenProject project : index.projects(index.dependents(current, true))) {
+                found.add(ProjectKey.of(project));
+            }
         }
-        return t;
+        return found;
     }
 
-    /**
-     * <p>Replace a String with another String inside a larger String,
-     * for the first <code>max</code> values of the search String.</p>
-     *
-     * <p>A <code>null</code> reference passed to this method is a no-op.</p>
-     *
-     * <p>Copied and modified from org.apache.maven.shared.utils.StringUtils.</p>
-     *
-     * @param text text to search and replace in
-     * @param repl String to search for
-     * @param with String to replace with
-     * @return the text with any replacements processed
-     */
-    static String replace(String text, String repl, String with) {
-        if ((text == null) || (repl == null) || (with == null) || repl.isEmpty()) {
-            return text;
-        }
-
-        StringBuilder buf = new StringBuilder(text.length());
-        int start = 0, end;
-        while ((end = text.indexOf(repl, start)) != -1) {
-            buf.append(text, start, end).append(with);
-            start = end + repl.length();
+    private static DependencyRule findRule(List<DependencyRule> rules, MavenProject project) {
+        if (rules != null) {
+            for (DependencyRule rule : rules) {
+                if (rule.matches(project)) {
+                    return rule;
+                }
+            }
         }
-        buf.append(text, start, text.length());
-        return buf.toString();
+        return null;
     }
 
     /**
@@ -198,31 +278,27 @@ public class AddInternalMojo extends BaseMojo {
      * @return true if included, false if excluded
      */
     public boolean isIncluded(MavenProject mavenProject) {
-        String projectGroupId = mavenProject.getGroupId();
-        String projectArtifactId = mavenProject.getArtifactId();
-        String projectId = projectGroupId + ":" + projectArtifactId;
-
-        // Match from the end of the id, artifactId alone is enough.
-        Predicate<String> predicateForProjectId = s -> projectId.matches(convertStringForMatching(s));
-        if (this.includes.isEmpty() && this.excludes.isEmpty()) {
-            return true;
-        } else if (this.includes.isEmpty()) {  // && ! this.excludes.isEmpty()
-            return this.excludes.stream().noneMatch(predicateForProjectId);
-        } else if (this.excludes.isEmpty()) {  // && !this.includes.isEmpty()
-            return this.includes.stream().anyMatch(predicateForProjectId);
-        } else {
-            return this.includes.stream().anyMatch(predicateForProjectId) && this.excludes.stream().noneMatch(predicateForProjectId);
-        }
+        ProjectMatcher matcher = this.projectMatcher != null ? this.projectMatcher : ProjectMatcher.compileOrAll(this.includes, this.excludes);
+        return matcher.isIncluded(mavenProject);
     }
 
     /**
      * The main entry point for mojo.
      */
     @Override
-    public void execute() {
+    public void execute() throws MojoExecutionException {
         if (this.skip || this.thisMojoSkip) {
             return;
         }
+        MavenProject currentProject = this.mavenSession.getCurrentProject();
+        if (currentProject.getContextValue(AddInternalLifecycleParticipant.CONTEXT_KEY) != null) {
+            getLog().debug("Dependencies already added by the build extension");
+            return;
+        }
+        if (this.mavenSession.isParallel()) {
+            getLog().warn("Goal add-internal is not safe in a parallel build."
+                    + " Declare the plugin with <extensions>true</extensions> to add the dependencies before the build starts.");
+        }
         validateParameters();
 
         // if includes/excludes project artifactId and groupId are full and not found
@@ -230,9 +306,7 @@ public class AddInternalMojo extends BaseMojo {
         // or MojoExecutionException
 
         final List<MavenProject> projects = mavenSession.getProjects();
-        final List<String> outRows = addInternal(projects);
-
-        printOut(outRows);
+        addInternal(projects);
     }
 
 }
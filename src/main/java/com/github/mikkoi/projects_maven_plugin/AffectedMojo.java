@@ -0,0 +1,205 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * List the projects affected by changed files:
+ * the projects which own the files and, by default,
+ * all the projects which depend on them, directly or transitively.
+ * <p>
+ * A file is owned by the project whose base directory is the longest prefix of its path,
+ * see {@link ProjectPathTrie}.
+ * The output is like in goal list, so with print format {groupId}:{artifactId}
+ * the projects can be given to Maven option -pl.
+ */
+@Mojo(name = "affected", defaultPhase = LifecyclePhase.NONE, aggregator = true)
+public class AffectedMojo extends BaseMojo {
+
+    /**
+     * Changed files, comma separated.
+     * Relative paths are relative to the directory where Maven was started.
+     */
+    @Parameter(property = "projects" + ".affected" + ".changedFiles")
+    List<String> changedFiles;
+
+    /**
+     * File which lists the changed files, one on every row, e.g. output of git diff --name-only.
+     * Empty rows are skipped.
+     * Relative paths are relative to the directory where Maven was started.
+     */
+    @Parameter(property = "projects" + ".affected" + ".changedFilesFile")
+    File changedFilesFile;
+
+    /**
+     * Include the projects which depend on the projects owning the changed files.
+     */
+    @Parameter(property = "projects" + ".affected" + ".downstream", defaultValue = "true")
+    boolean downstream;
+
+    /**
+     * Include by project [groupId:]artifactId.
+     * Default value: all affected projects included.
+     */
+    @Parameter(property = "projects" + ".affected" + ".includes")
+    List<String> includes;
+
+    /**
+     * Exclude by project [groupId:]artifactId.
+     * Excluded projects are not printed, but the projects which depend on them are.
+     * Default value: No projects excluded.
+     */
+    @Parameter(property = "projects" + ".affected" + ".excludes")
+    List<String> excludes;
+
+    /**
+     * Sorting order: maven | alphabetic | topological | reverse-topological | waves, default: maven
+     */
+    @Parameter(property = "projects" + ".affected" + ".sortOrder", defaultValue = "maven")
+    String sortOrder;
+
+    /**
+     * Format for printing, with the same placeholders as in goal list.
+     * Default value: {groupId}:{artifactId}
+     */
+    @Parameter(property = "projects" + ".affected" + ".printFormat", defaultValue = "{groupId}:{artifactId}")
+    String printFormat;
+
+    /**
+     * Output format: text | json | ndjson | csv, see goal list.
+     * Default: text
+     */
+    @Parameter(property = "projects" + ".affected" + ".outputFormat", defaultValue = "text")
+    String outputFormat;
+
+    private ProjectMatcher projectMatcher;
+    private ProjectFormat projectFormat;
+    private OutputFormat resolvedOutputFormat;
+    private SortOrder resolvedSortOrder;
+
+    /**
+     * Validate parameters provided via properties
+     * either on the command line or using configuration element in pom.
+     */
+    void validateAndPrepareParameters() throws MojoExecutionException {
+        getLog().debug("changedFiles=" + changedFiles);
+        getLog().debug("changedFilesFile=" + changedFilesFile);
+        getLog().debug("downstream=" + downstream);
+        getLog().debug("includes=" + includes);
+        getLog().debug("excludes=" + excludes);
+
+        projectMatcher = ProjectMatcher.compileOrAll(includes, excludes);
+        resolvedSortOrder = resolveSortOrder(sortOrder);
+        projectFormat = resolvePrintFormat(printFormat);
+        resolvedOutputFormat = resolveOutputFormat(outputFormat);
+    }
+
+    /**
+     * Read the changed files from parameters changedFiles and changedFilesFile.
+     *
+     * @param baseDirectory Directory which relative paths are relative to
+     * @return the changed files
+     * @throws MojoExecutionException if the file cannot be read
+     */
+    List<Path> readChangedFiles(Path baseDirectory) throws MojoExecutionException {
+        List<String> names = new ArrayList<>();
+        if (changedFiles != null) {
+            names.addAll(changedFiles);
+        }
+        if (changedFilesFile != null) {
+            try {
+                names.addAll(Files.readAllLines(changedFilesFile.toPath(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new MojoExecutionException(String.format("Failure in parameter 'changedFilesFile'. Cannot read file '%s'. Error: %s",
+                        changedFilesFile, e.getMessage()), e);
+            }
+        }
+        List<Path> paths = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (name != null && !name.trim().isEmpty()) {
+                paths.add(baseDirectory.resolve(name.trim()));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Find the affected projects.
+     *
+     * @param projects     All projects in the build
+     * @param graph        Project dependency graph, only needed for downstream projects
+     * @param changedFiles Changed files, absolute
+     * @param downstream   Include the projects which depend on the owners of the files
+     * @return the affected projects
+     */
+    static Set<MavenProject> affectedProjects(Collection<MavenProject> projects, ProjectDependencyGraph graph,
+                                              Collection<Path> changedFiles, boolean downstream) {
+        ProjectPathTrie trie = new ProjectPathTrie(projects);
+        Set<MavenProject> affected = new HashSet<>();
+        Deque<MavenProject> queue = new ArrayDeque<>();
+        for (Path changedFile : changedFiles) {
+            MavenProject owner = trie.findOwner(changedFile);
+            if (owner != null && affected.add(owner)) {
+                queue.add(owner);
+            }
+        }
+        while (downstream && !queue.isEmpty()) {
+            for (MavenProject dependent : graph.getDownstreamProjects(queue.poll(), false)) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Convert the affected projects to rows for printing.
+     *
+     * @param projects All projects in the build, in Maven order
+     * @param affected Affected projects
+     * @return the rows
+     */
+    Stream<String> list(List<MavenProject> projects, Set<MavenProject> affected) {
+        ProjectDependencyGraph graph = mavenSession == null ? null : mavenSession.getProjectDependencyGraph();
+        Stream<MavenProject> selected = MojoUtilities.selectProjects(projects,
+                project -> affected.contains(project) && projectMatcher.isIncluded(project), resolvedSortOrder, graph);
+        return resolvedOutputFormat.rows(selected, projectFormat);
+    }
+
+    /**
+     * The main entry point for mojo.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            getLog().info("Skip execution ...");
+            return;
+        }
+        validateAndPrepareParameters();
+
+        List<Path> changed = readChangedFiles(new File(mavenSession.getExecutionRootDirectory()).toPath());
+        List<MavenProject> projects = mavenSession.getProjects();
+        Set<MavenProject> affected = affectedProjects(projects, mavenSession.getProjectDependencyGraph(), changed, downstream);
+        getLog().debug(String.format("%d changed files affect %d of %d projects", changed.size(), affected.size(), projects.size()));
+        printOut(list(projects, affected));
+    }
+}
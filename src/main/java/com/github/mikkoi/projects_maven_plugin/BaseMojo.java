@@ -2,10 +2,17 @@ package com.github.mikkoi.projects_maven_plugin;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Base class for Mojos.
@@ -27,6 +34,13 @@ public abstract class BaseMojo extends AbstractMojo {
     @Parameter(property = "projects" + ".forceStdout", alias = "forceStdout", defaultValue = "false")
     boolean forceStdout;
 
+    /**
+     * Write output to this file instead of STDOUT or logging.
+     * The file is written in UTF-8 and overwritten if it exists.
+     */
+    @Parameter(property = "projects" + ".outputFile", alias = "outputFile")
+    File outputFile;
+
     /**
      * Give warning instead of error.
      */
@@ -54,19 +68,112 @@ public abstract class BaseMojo extends AbstractMojo {
     }
 
     /**
-     * Print out the rows.
+     * Directory of the top level project, {relPath} is relative to it.
+     *
+     * @return the directory, or null if not known
+     */
+    File getRootDirectory() {
+        if (this.mavenSession == null || this.mavenSession.getTopLevelProject() == null) {
+            return null;
+        }
+        return this.mavenSession.getTopLevelProject().getBasedir();
+    }
+
+    /**
+     * Resolve parameter sortOrder.
+     *
+     * @param sortOrder Value of the parameter
+     * @return the sort order
+     * @throws MojoExecutionException if the value is not known
+     */
+    static SortOrder resolveSortOrder(String sortOrder) throws MojoExecutionException {
+        try {
+            return SortOrder.of(sortOrder);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Failure in parameter 'sortOrder'. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compile parameter printFormat with the fields of {@link ProjectFormat#fields(File)}.
+     *
+     * @param printFormat Value of the parameter
+     * @return the compiled format
+     * @throws MojoExecutionException if the format is invalid
+     */
+    ProjectFormat resolvePrintFormat(String printFormat) throws MojoExecutionException {
+        return resolvePrintFormat(printFormat, ProjectFormat.fields(getRootDirectory()));
+    }
+
+    /**
+     * Compile parameter printFormat.
+     *
+     * @param printFormat Value of the parameter
+     * @param fields      The placeholders and how to get their values
+     * @return the compiled format
+     * @throws MojoExecutionException if the format is invalid
+     */
+    static ProjectFormat resolvePrintFormat(String printFormat, Map<String, Function<MavenProject, String>> fields)
+            throws MojoExecutionException {
+        try {
+            return ProjectFormat.compile(printFormat, fields);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Failure in parameter 'printFormat'. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve parameter outputFormat.
+     *
+     * @param outputFormat Value of the parameter, null means text
+     * @return the output format
+     * @throws MojoExecutionException if the value is not known
+     */
+    static OutputFormat resolveOutputFormat(String outputFormat) throws MojoExecutionException {
+        try {
+            return outputFormat == null ? OutputFormat.TEXT : OutputFormat.of(outputFormat);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Failure in parameter 'outputFormat'. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open the sink for output rows.
+     * If outputFile is set, write to it,
      * if forceStdout is set, then print to STDOUT, otherwise use logger.
      *
-     * @param outRows List of strings for printing.
+     * @return the sink, must be closed after use
+     * @throws MojoExecutionException if the output file cannot be opened
      */
-    void printOut(List<String> outRows) {
-        outRows.forEach(row -> {
-            if (this.forceStdout) {
-                System.out.println(row);
-            } else {
-                getLog().info(row);
+    OutputSink openOutputSink() throws MojoExecutionException {
+        if (this.outputFile != null) {
+            try {
+                return OutputSink.file(this.outputFile.toPath());
+            } catch (IOException e) {
+                throw new MojoExecutionException(String.format("Cannot open output file '%s'. Error: %s", this.outputFile, e.getMessage()), e);
             }
-        });
+        } else if (this.forceStdout) {
+            return OutputSink.stdout();
+        } else {
+            return OutputSink.log(getLog());
+        }
+    }
+
+    /**
+     * Print out the rows.
+     * See {@link #openOutputSink()} for where they are printed.
+     * The rows are written one at a time as the stream produces them.
+     * The stream is closed afterwards.
+     *
+     * @param outRows Stream of strings for printing.
+     * @throws MojoExecutionException if writing fails
+     */
+    void printOut(Stream<String> outRows) throws MojoExecutionException {
+        try (Stream<String> rows = outRows; OutputSink sink = openOutputSink()) {
+            rows.forEachOrdered(sink::write);
+        } catch (IOException | UncheckedIOException e) {
+            throw new MojoExecutionException(String.format("Cannot write output. Error: %s", e.getMessage()), e);
+        }
     }
 
 }
@@ -0,0 +1,98 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Create the model of a BOM project for goal create-bom.
+ * <p>
+ * The model is built from scratch: only the fields a BOM keeps are copied
+ * from the model of the current project, the rest of it (build, plugins,
+ * profiles, properties, dependencies) is never copied.
+ * The copied fields are named in parameter bomFields.
+ */
+final class BomModel {
+
+    /**
+     * Field names and how to copy them, in the order of the POM.
+     */
+    private static final Map<String, BiConsumer<Model, Model>> FIELDS;
+
+    static {
+        Map<String, BiConsumer<Model, Model>> fields = new LinkedHashMap<>();
+        fields.put("description", (source, target) -> target.setDescription(source.getDescription()));
+        fields.put("url", (source, target) -> target.setUrl(source.getUrl()));
+        fields.put("inceptionYear", (source, target) -> target.setInceptionYear(source.getInceptionYear()));
+        fields.put("organization", (source, target) -> target.setOrganization(source.getOrganization()));
+        fields.put("licenses", (source, target) -> target.setLicenses(new ArrayList<>(source.getLicenses())));
+        fields.put("developers", (source, target) -> target.setDevelopers(new ArrayList<>(source.getDevelopers())));
+        fields.put("contributors", (source, target) -> target.setContributors(new ArrayList<>(source.getContributors())));
+        fields.put("mailingLists", (source, target) -> target.setMailingLists(new ArrayList<>(source.getMailingLists())));
+        fields.put("scm", (source, target) -> target.setScm(source.getScm()));
+        fields.put("issueManagement", (source, target) -> target.setIssueManagement(source.getIssueManagement()));
+        fields.put("ciManagement", (source, target) -> target.setCiManagement(source.getCiManagement()));
+        fields.put("distributionManagement", (source, target) -> target.setDistributionManagement(source.getDistributionManagement()));
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Default value of parameter bomFields: all known fields.
+     */
+    static final String DEFAULT_FIELDS = "description,url,inceptionYear,organization,licenses,developers,contributors,"
+            + "mailingLists,scm,issueManagement,ciManagement,distributionManagement";
+
+    private BomModel() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Check that all field names are known.
+     *
+     * @param fields Field names
+     * @throws IllegalArgumentException if a field is not known
+     */
+    static void validate(List<String> fields) {
+        for (String field : fields) {
+            if (!FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException(String.format("Unknown field '%s'. Allowed values: %s.",
+                        field, String.join(", ", FIELDS.keySet())));
+            }
+        }
+    }
+
+    /**
+     * Create the model of a BOM project, with packaging pom and an empty dependencyManagement.
+     * The objects of the copied fields are shared with the source model, not cloned.
+     *
+     * @param source     Model to copy the fields from, usually of the current project
+     * @param fields     Names of the fields to copy, see {@link #validate(List)}
+     * @param groupId    GroupId of the BOM
+     * @param artifactId ArtifactId of the BOM
+     * @param version    Version of the BOM
+     * @param name       Name of the BOM
+     * @return the model
+     */
+    static Model create(Model source, List<String> fields, String groupId, String artifactId, String version, String name) {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId(groupId);
+        model.setArtifactId(artifactId);
+        model.setVersion(version);
+        model.setPackaging("pom");
+        model.setName(name);
+        for (Map.Entry<String, BiConsumer<Model, Model>> field : FIELDS.entrySet()) {
+            if (fields.contains(field.getKey())) {
+                field.getValue().accept(source, model);
+            }
+        }
+        model.setDependencyManagement(new DependencyManagement());
+        return model;
+    }
+}
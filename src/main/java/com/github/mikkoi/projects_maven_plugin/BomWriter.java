@@ -0,0 +1,137 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.DefaultModelWriter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming writer for the BOM POM, for parameter streamingWriter in goal create-bom.
+ * <p>
+ * The head of the POM, everything before dependencyManagement, is written from the
+ * BOM model with the Maven model writer. Then every managed dependency is written
+ * with StAX straight to the output as soon as it is given, so the dependencies
+ * never exist as {@link org.apache.maven.model.Dependency} objects and memory use
+ * does not grow with the number of dependencies.
+ * The output is the same as the Maven model writer would write for the whole model.
+ */
+final class BomWriter implements Closeable {
+
+    private static final String INDENT = "  ";
+    private static final String DEPENDENCY_INDENT = "\n" + INDENT + INDENT + INDENT;
+    private static final String FIELD_INDENT = DEPENDENCY_INDENT + INDENT;
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final Writer writer;
+    private final XMLStreamWriter xml;
+    private boolean empty = true;
+
+    /**
+     * Start writing a BOM: write the head of the POM.
+     *
+     * @param out  Stream to write to
+     * @param head Model of the BOM, its dependencyManagement is not written
+     * @throws IOException if writing fails
+     */
+    BomWriter(OutputStream out, Model head) throws IOException {
+        Model model = head.clone();
+        model.setDependencyManagement(null);
+        StringWriter headWriter = new StringWriter();
+        new DefaultModelWriter().write(headWriter, null, model);
+        String text = headWriter.toString();
+        int end = text.lastIndexOf("</project>");
+        if (end < 0) {
+            throw new IOException("Cannot write BOM, no end of project in the head: " + text);
+        }
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        this.writer.write(text, 0, end);
+        try {
+            this.xml = OUTPUT_FACTORY.createXMLStreamWriter(this.writer);
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot write BOM: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write one managed dependency.
+     *
+     * @param groupId    GroupId
+     * @param artifactId ArtifactId
+     * @param version    Version
+     * @param type       Type, not written if jar or null
+     * @param classifier Classifier, not written if empty or null
+     * @throws IOException if writing fails
+     */
+    void dependency(String groupId, String artifactId, String version, String type, String classifier) throws IOException {
+        try {
+            if (empty) {
+                xml.writeCharacters(INDENT);
+                xml.writeStartElement("dependencyManagement");
+                xml.writeCharacters("\n" + INDENT + INDENT);
+                xml.writeStartElement("dependencies");
+                empty = false;
+            }
+            xml.writeCharacters(DEPENDENCY_INDENT);
+            xml.writeStartElement("dependency");
+            field("groupId", groupId);
+            field("artifactId", artifactId);
+            field("version", version);
+            if (type != null && !"jar".equals(type)) {
+                field("type", type);
+            }
+            if (classifier != null && !classifier.isEmpty()) {
+                field("classifier", classifier);
+            }
+            xml.writeCharacters(DEPENDENCY_INDENT);
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot write BOM: " + e.getMessage(), e);
+        }
+    }
+
+    private void field(String name, String value) throws XMLStreamException {
+        if (value != null) {
+            xml.writeCharacters(FIELD_INDENT);
+            xml.writeStartElement(name);
+            xml.writeCharacters(value);
+            xml.writeEndElement();
+        }
+    }
+
+    /**
+     * Finish the BOM: end dependencyManagement and the project, and flush.
+     * The stream is not closed.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!empty) {
+                xml.writeCharacters("\n" + INDENT + INDENT);
+                xml.writeEndElement();
+                xml.writeCharacters("\n" + INDENT);
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+            }
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot write BOM: " + e.getMessage(), e);
+        }
+        if (empty) {
+            // Written as text, StAX has no empty element with a space like the model writer.
+            writer.write(INDENT + "<dependencyManagement />\n");
+        }
+        writer.write("</project>\n");
+        writer.flush();
+    }
+}
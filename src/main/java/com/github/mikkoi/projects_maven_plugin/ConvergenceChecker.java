@@ -0,0 +1,81 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.artifact.Artifact;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Find dependencies which the projects bring in with different versions,
+ * for parameter errorDependencyConvergence in goal create-bom.
+ * <p>
+ * Every groupId:artifactId is indexed into a map from version to the projects
+ * which bring in that version. A dependency converges if it has only one version.
+ * Adding is constant time per dependency and the conflicts are found in one pass
+ * over the index, so checking the whole build once costs about as much as reading
+ * the collected dependencies.
+ */
+final class ConvergenceChecker {
+
+    /**
+     * Projects by version by groupId:artifactId, both in the order they were added.
+     */
+    private final Map<String, Map<String, List<MavenProject>>> versions = new LinkedHashMap<>();
+
+    /**
+     * Add a dependency brought in by a project.
+     *
+     * @param groupId    GroupId
+     * @param artifactId ArtifactId
+     * @param version    Version
+     * @param project    Project
+     */
+    void add(String groupId, String artifactId, String version, MavenProject project) {
+        List<MavenProject> projects = versions
+                .computeIfAbsent(groupId + ':' + artifactId, key -> new LinkedHashMap<>(2))
+                .computeIfAbsent(version, key -> new ArrayList<>());
+        if (projects.isEmpty() || projects.get(projects.size() - 1) != project) {
+            projects.add(project);
+        }
+    }
+
+    /**
+     * Add the collected dependencies of projects.
+     *
+     * @param artifacts Artifacts by project
+     * @return this
+     */
+    ConvergenceChecker addAll(Map<MavenProject, List<Artifact>> artifacts) {
+        for (Map.Entry<MavenProject, List<Artifact>> entry : artifacts.entrySet()) {
+            for (Artifact artifact : entry.getValue()) {
+                add(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion(), entry.getKey());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Describe the dependencies which do not converge, one row for each.
+     * The versions are listed in order of first appearance, for example
+     * {@code org.example:lib: 1.0 (com.example:a, com.example:b), 2.0 (com.example:c)}.
+     *
+     * @return the rows, empty if all dependencies converge
+     */
+    List<String> conflicts() {
+        List<String> conflicts = new ArrayList<>();
+        for (Map.Entry<String, Map<String, List<MavenProject>>> entry : versions.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                conflicts.add(entry.getKey() + ": " + entry.getValue().entrySet().stream()
+                        .map(version -> version.getKey() + " (" + version.getValue().stream()
+                                .map(project -> ProjectKey.of(project).toString())
+                                .collect(Collectors.joining(", ")) + ")")
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        return conflicts;
+    }
+}
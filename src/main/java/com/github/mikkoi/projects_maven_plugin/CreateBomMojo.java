@@ -1,8 +1,6 @@
 package com.github.mikkoi.projects_maven_plugin;
-
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
-import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.DefaultModelWriter;
 import org.apache.maven.model.io.ModelWriter;
@@ -11,83 +9,116 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.collection.DependencyCollectionException;
 
+import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import static com.github.mikkoi.projects_maven_plugin.MojoUtilities.REPLACE_ME_STRING;
-
 /**
- * Create a BOM POM from the current POM.
- * Remove all dependencies, profiles, build and properties from the current POM.
- * Empty dependencyManagement section.
- * Put all projects of the current build to its dependencyManagement section.
+ * Create a BOM POM for the projects of the current build.
+ * The BOM is a new POM with packaging pom, the given groupId, artifactId, version and name,
+ * and the fields of the current POM named in bomFields, see {@link BomModel}.
+ * Its dependencyManagement section has the selected projects of the current build
+ * and, with includeDependencies, their external dependencies.
  */
 @Mojo(name = "create-bom", defaultPhase = LifecyclePhase.NONE, aggregator = true)
 public class CreateBomMojo extends BaseMojo {
-
     /**
      * Skip execution
      */
     @Parameter(property = "projects" + ".createBom" + ".skip", defaultValue = "false")
     boolean thisMojoSkip;
-
     /**
      * BOM path. Filepath to write the new pom.xml.
      */
     @Parameter(property = "projects" + ".createBom" + ".bomFilepath", alias = "bomFilepath", defaultValue = REPLACE_ME_STRING)
     String bomFilepath;
-
     /**
      * BOM file groupId.
      */
     @Parameter(property = "projects" + ".createBom" + ".bomGroupId", alias = "bomGroupId", defaultValue = REPLACE_ME_STRING)
     String bomGroupId;
-
     /**
      * BOM file artifactId.
      */
     @Parameter(property = "projects" + ".createBom" + ".bomArtifactId", alias = "bomArtifactId", defaultValue = "bom")
     String bomArtifactId;
-
     /**
      * BOM file version.
      */
     @Parameter(property = "projects" + ".createBom" + ".bomVersion", alias = "bomVersion", defaultValue = REPLACE_ME_STRING)
     String bomVersion;
-
     /**
      * BOM name.
      */
     @Parameter(property = "projects" + ".createBom" + ".bomName", alias = "bomName", defaultValue = "Project BOM")
     String bomName;
-
+    /**
+     * Fields copied to the BOM from the current project, in addition to
+     * groupId, artifactId, version and name, which are set with the bom parameters.
+     * Allowed values: description, url, inceptionYear, organization, licenses, developers,
+     * contributors, mailingLists, scm, issueManagement, ciManagement, distributionManagement.
+     * Default value: all of them.
+     */
+    @Parameter(property = "projects" + ".createBom" + ".bomFields", alias = "bomFields", defaultValue = BomModel.DEFAULT_FIELDS)
+    List<String> bomFields;
     /**
      * Include the projects of the current build.
      */
     @Parameter(property = "projects" + ".createBom" + ".includeProjects", alias = "includeProjects", defaultValue = "true")
     boolean includeProjects;
-
     /**
-     * Include the dependencies of the current build.
-     * Not implemented.
+     * Include the external dependencies of the included projects,
+     * with the versions Maven resolves for them, direct and transitive.
      */
     @Parameter(property = "projects" + ".createBom" + ".includeDependencies", alias = "includeDependencies", defaultValue = "false")
     boolean includeDependencies;
 
+    /**
+     * Scopes of the dependencies to include when includeDependencies is true.
+     */
+    @Parameter(property = "projects" + ".createBom" + ".dependencyScopes", alias = "dependencyScopes", defaultValue = "compile,runtime")
+    List<String> dependencyScopes;
+
+    /**
+     * Number of threads for collecting the dependencies of the projects.
+     * Default value: 0, the number of processors.
+     */
+    @Parameter(property = "projects" + ".createBom" + ".dependencyThreads", alias = "dependencyThreads", defaultValue = "0")
+    int dependencyThreads;
     /**
      * Error if same dependency is included several times with different versions.
-     * Not implemented.
+     * Checked when includeDependencies is true. With errorIsWarning the conflicts are only logged.
      */
     @Parameter(property = "projects" + ".createBom" + ".errorDependencyConvergence", alias = "errorDependencyConvergence", defaultValue = "true")
     boolean errorDependencyConvergence;
 
+    /**
+     * Write the managed dependencies of the BOM straight to the file as the projects
+     * are selected, instead of first building them into the model of the BOM.
+     * Saves memory in very large builds. The written BOM is the same.
+     * With includeDependencies the collected external dependencies are still held in memory,
+     * because they are checked for convergence and written once each in alphabetical order.
+     */
+    @Parameter(property = "projects" + ".createBom" + ".streamingWriter", alias = "streamingWriter", defaultValue = "false")
+    boolean streamingWriter;
+
     /**
      * Make the bom part of the current project by adding it as a module.
      */
@@ -110,7 +141,6 @@ public class CreateBomMojo extends BaseMojo {
     public void setIncludes(List<String> includes) {
         this.includes = includes;
     }
-
     /**
      * Exclude by project [groupId:]artifactId.
      * Default value: No projects excluded.
@@ -129,16 +159,25 @@ public class CreateBomMojo extends BaseMojo {
     }
 
     /**
-     * Sorting order: maven | alphabetic, default: maven
+     * Sorting order: maven | alphabetical (or alphabetic) | topological | reverse-topological | waves, default: maven
      */
     @Parameter(property = "projects" + ".createBom" + ".sortOrder", defaultValue = "maven")
     String sortOrder;
 
+    /**
+     * Includes and excludes compiled for matching.
+     */
+    private ProjectMatcher projectMatcher;
+    /**
+     * Repository system for collecting dependencies.
+     */
+    @Inject
+    RepositorySystem repositorySystem;
     /**
      * Validate parameters provided via properties
      * either on the command line or using configuration element in pom.
      */
-    private void validateAndPrepareParameters() throws MojoExecutionException {
+    void validateAndPrepareParameters() throws MojoExecutionException {
         getLog().debug("includes=" + includes);
         getLog().debug("excludes=" + excludes);
         getLog().debug("sortOrder=" + sortOrder);
@@ -147,7 +186,8 @@ public class CreateBomMojo extends BaseMojo {
         getLog().debug("bomArtifactId=" + bomArtifactId);
         getLog().debug("bomVersion=" + bomVersion);
         getLog().debug("bomName=" + bomName);
-
+        getLog().debug("bomFields=" + bomFields);
+        getLog().debug("streamingWriter=" + streamingWriter);
         for (String a : includes) {
             if (a == null) {
                 throw new MojoExecutionException("Failure in parameter 'includes'. String is null");
@@ -162,11 +202,23 @@ public class CreateBomMojo extends BaseMojo {
                 throw new MojoExecutionException("Failure in parameter 'excludes'. String is null");
             }
         }
-
-        if (! ("maven".equals(sortOrder) || "alphabetical".equals(sortOrder))) {
-            throw new MojoExecutionException("Failure in parameter 'sortOrder'. Allowed values: 'maven', 'alphabetical'.");
+        projectMatcher = ProjectMatcher.compile(includes, excludes);
+        resolveSortOrder(sortOrder);
+        if (bomFields == null) {
+            bomFields = Arrays.asList(BomModel.DEFAULT_FIELDS.split(","));
+        }
+        try {
+            BomModel.validate(bomFields);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Failure in parameter 'bomFields'. " + e.getMessage(), e);
         }
 
+        if (includeDependencies && (dependencyScopes == null || dependencyScopes.isEmpty())) {
+            throw new MojoExecutionException("Failure in parameter 'dependencyScopes'. List is empty");
+        }
+        if (dependencyThreads < 0) {
+            throw new MojoExecutionException("Failure in parameter 'dependencyThreads'. Must not be negative");
+        }
         if (REPLACE_ME_STRING.equals(bomFilepath)) {
             // Replace with default: target/bom/pom.xml
             bomFilepath = mavenSession.getCurrentProject().getBuild().getDirectory() + "/bom/pom.xml";
@@ -206,39 +258,6 @@ public class CreateBomMojo extends BaseMojo {
         getLog().debug("bomName(resolved)=" + bomName);
     }
 
-    /**
-     * Create a comparator which compares Maven project groupId, artifactId and type
-     * for alphabetical listing.
-     *
-     * @param sortOrder "random" / "alphabetic"
-     * @return the comparator
-     */
-    static Comparator<MavenProject> getMavenProjectComparator(String sortOrder) {
-        Comparator<MavenProject> comparator;
-        if ("maven".equals(sortOrder)) {
-            comparator = (o1, o2) -> 0;
-        } else {
-            comparator = (o1, o2) -> {
-                String o1GroupId = o1.getGroupId();
-                String o2groupId = o2.getGroupId();
-                String o1artifactId = o1.getArtifactId();
-                String o2artifactId = o2.getArtifactId();
-                String o1type = o1.getPackaging();
-                String o2type = o2.getPackaging();
-                int r = o1GroupId.compareTo(o2groupId);
-                if (r != 0) {
-                    return r;
-                }
-                int s = o1artifactId.compareTo(o2artifactId);
-                if (s != 0) {
-                    return s;
-                }
-                return o1type.compareTo(o2type);
-            };
-        }
-        return comparator;
-    }
-
     /**
      * Write a POM.
      *
@@ -251,59 +270,106 @@ public class CreateBomMojo extends BaseMojo {
             modelWriter.write(outputStream, null, model);
         }
     }
+    /**
+     * Write the BOM POM only if it has changed, see {@link IncrementalFile}.
+     * The hash of the POM is kept alongside it in a file with suffix .sha256.
+     *
+     * @param path  Path to the file
+     * @param model Maven POM {@link org.apache.maven.model.Model}
+     * @return true if the file was written, false if it was up to date
+     * @throws IOException if writing fails
+     */
+    static boolean writeBom(Path path, Model model) throws IOException {
+        final ModelWriter modelWriter = new DefaultModelWriter();
+        return IncrementalFile.write(path, out -> modelWriter.write(out, null, model));
+    }
+    /**
+     * Write the BOM POM only if it has changed, with {@link BomWriter}:
+     * the projects and artifacts are written as managed dependencies one by one,
+     * after the managed dependencies already in the model.
+     *
+     * @param path      Path to the file
+     * @param model     Maven POM {@link org.apache.maven.model.Model}
+     * @param projects  Projects to write
+     * @param artifacts External artifacts to write
+     * @return true if the file was written, false if it was up to date
+     * @throws IOException if writing fails
+     */
+    static boolean writeBomStreaming(Path path, Model model, Stream<MavenProject> projects, List<Artifact> artifacts)
+            throws IOException {
+        return IncrementalFile.write(path, out -> {
+            try (BomWriter writer = new BomWriter(out, model)) {
+                for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                    writer.dependency(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                            dependency.getType(), dependency.getClassifier());
+                }
+                for (Iterator<MavenProject> it = projects.iterator(); it.hasNext(); ) {
+                    MavenProject project = it.next();
+                    writer.dependency(project.getGroupId(), project.getArtifactId(), project.getVersion(),
+                            project.getArtifact().getType(), null);
+                }
+                for (Artifact artifact : artifacts) {
+                    writer.dependency(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion(),
+                            artifactType(artifact), artifact.getClassifier());
+                }
+            }
+        });
+    }
 
     /**
      * Convert list of projects to a list of strings.
      *
      * @param mavenSession MavenSession
+     * @throws MojoExecutionException if the dependencies cannot be collected
      */
-    void createBom(MavenSession mavenSession) {
+    void createBom(MavenSession mavenSession) throws MojoExecutionException {
         getLog().debug(String.format("Begin of createBom(%s)", mavenSession));
         final MavenProject currentProject = mavenSession.getCurrentProject();
 
-        // Create a new model so we don't pollute the current one.
-        final Model model = currentProject.getModel().clone();
+        // Create a new model with only the fields a BOM keeps, and fill its dependencyManagement.
+        final Model model = BomModel.create(currentProject.getModel(), this.bomFields,
+                this.bomGroupId, this.bomArtifactId, this.bomVersion, this.bomName);
         getLog().debug(String.format("model=%s", model));
-
-        // Remove from model the following elements:
-        model.setBuild(null);
-        model.setDependencies(null);
-        model.setPluginRepositories(null);
-        model.getDependencies().clear();
-        model.getProfiles().clear();
-        model.setPrerequisites(null);
-        model.setRepositories(null);
-        model.setProperties(null);
-        model.setReporting(null);
-        model.setParent(null);
-        model.setModules(null);
-
-        model.setGroupId(this.bomGroupId);
-        model.setArtifactId(this.bomArtifactId);
-        model.setVersion(this.bomVersion);
-        model.setName(this.bomName);
-
-        // Clear dependencyManagement and fill it with all projects in the build.
-        getLog().debug(String.format("model.getDependencyManagement=%s", model.getDependencyManagement()));
-        model.setDependencyManagement(new DependencyManagement());
-
-        if (includeProjects) {
-            final List<MavenProject> projects = mavenSession.getProjects();
-            Comparator<MavenProject> comparator = getMavenProjectComparator(this.sortOrder);
-            projects.stream().filter(this::isIncluded).sorted(comparator).forEach(mavenProject -> {
-                final Dependency dependency = new Dependency();
-                dependency.setGroupId(mavenProject.getGroupId());
-                dependency.setArtifactId(mavenProject.getArtifactId());
-                dependency.setVersion(mavenProject.getVersion());
-                dependency.setType(mavenProject.getArtifact().getType());
-                model.getDependencyManagement().addDependency(dependency);
-            });
+        final List<MavenProject> projects = mavenSession.getProjects();
+        List<Artifact> externalArtifacts = Collections.emptyList();
+        if (includeDependencies) {
+            List<MavenProject> included = MojoUtilities.selectProjects(projects, this::isIncluded, SortOrder.of(this.sortOrder),
+                    mavenSession.getProjectDependencyGraph()).collect(Collectors.toList());
+            Map<MavenProject, List<Artifact>> artifacts = collectDependencies(mavenSession, included);
+            if (errorDependencyConvergence) {
+                checkConvergence(artifacts);
+            }
+            externalArtifacts = externalArtifacts(artifacts);
         }
-
+        final Stream<MavenProject> includedProjects = includeProjects
+                ? MojoUtilities.selectProjects(projects, this::isIncluded, SortOrder.of(this.sortOrder),
+                        mavenSession.getProjectDependencyGraph())
+                : Stream.empty();
         // Save the BOM POM
         try {
-            writePOM(Paths.get(this.bomFilepath).toAbsolutePath(), model);
-            getLog().info(String.format("BOM saved in %s", this.bomFilepath));
+            final Path path = Paths.get(this.bomFilepath).toAbsolutePath();
+            final boolean written;
+            if (streamingWriter) {
+                written = writeBomStreaming(path, model, includedProjects, externalArtifacts);
+            } else {
+                includedProjects.forEach(mavenProject -> {
+                    final Dependency dependency = new Dependency();
+                    dependency.setGroupId(mavenProject.getGroupId());
+                    dependency.setArtifactId(mavenProject.getArtifactId());
+                    dependency.setVersion(mavenProject.getVersion());
+                    dependency.setType(mavenProject.getArtifact().getType());
+                    model.getDependencyManagement().addDependency(dependency);
+                });
+                for (Artifact artifact : externalArtifacts) {
+                    model.getDependencyManagement().addDependency(toDependency(artifact));
+                }
+                written = writeBom(path, model);
+            }
+            if (written) {
+                getLog().info(String.format("BOM saved in %s", this.bomFilepath));
+            } else {
+                getLog().info(String.format("BOM in %s is up to date", this.bomFilepath));
+            }
         } catch (IOException e) {
             getLog().error(String.format("Cannot write POM %s", this.bomFilepath), e);
         }
@@ -322,6 +388,88 @@ public class CreateBomMojo extends BaseMojo {
         }
         getLog().debug(":End of createBom");
     }
+    /**
+     * Collect the external dependencies of projects.
+     *
+     * @param mavenSession MavenSession
+     * @param included     Projects to collect
+     * @return artifacts by project
+     * @throws MojoExecutionException if the dependencies of a project cannot be collected
+     */
+    private Map<MavenProject, List<Artifact>> collectDependencies(MavenSession mavenSession, List<MavenProject> included)
+            throws MojoExecutionException {
+        int threads = dependencyThreads == 0 ? Runtime.getRuntime().availableProcessors() : dependencyThreads;
+        DependencyCollector collector = new DependencyCollector(repositorySystem, mavenSession.getRepositorySession(),
+                dependencyScopes, threads);
+        long start = System.nanoTime();
+        try {
+            Map<MavenProject, List<Artifact>> artifacts = collector.collect(included, mavenSession.getProjects());
+            getLog().debug(String.format("Collected dependencies of %d projects in %d ms with %d threads",
+                    included.size(), (System.nanoTime() - start) / 1_000_000, threads));
+            return artifacts;
+        } catch (DependencyCollectionException e) {
+            throw new MojoExecutionException("Failure in parameter 'includeDependencies'. Cannot collect dependencies: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check that every dependency is brought in with only one version.
+     *
+     * @param artifacts Artifacts by project
+     * @throws MojoExecutionException if a dependency has several versions, unless errorIsWarning
+     */
+    void checkConvergence(Map<MavenProject, List<Artifact>> artifacts) throws MojoExecutionException {
+        List<String> conflicts = new ConvergenceChecker().addAll(artifacts).conflicts();
+        if (conflicts.isEmpty()) {
+            getLog().debug("All dependencies converge");
+            return;
+        }
+        String message = String.format("Dependency convergence: %d dependencies have several versions:%n    %s",
+                conflicts.size(), String.join(String.format("%n    "), conflicts));
+        if (errorIsWarning) {
+            getLog().warn(message);
+        } else {
+            throw new MojoExecutionException("Failure in parameter 'errorDependencyConvergence'. " + message);
+        }
+    }
+
+    /**
+     * The collected artifacts, each groupId:artifactId:type:classifier once, sorted alphabetically.
+     * If the projects bring in different versions of the same artifact,
+     * the version from the first project in the sort order is used.
+     *
+     * @param artifacts Artifacts by project
+     * @return the artifacts
+     */
+    static List<Artifact> externalArtifacts(Map<MavenProject, List<Artifact>> artifacts) {
+        Map<String, Artifact> unique = new LinkedHashMap<>();
+        for (List<Artifact> projectArtifacts : artifacts.values()) {
+            for (Artifact artifact : projectArtifacts) {
+                unique.putIfAbsent(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifactType(artifact)
+                        + ':' + artifact.getClassifier(), artifact);
+            }
+        }
+        return unique.values().stream()
+                .sorted(MojoUtilities.projectIdComparator(Artifact::getGroupId, Artifact::getArtifactId, CreateBomMojo::artifactType))
+                .collect(Collectors.toList());
+    }
+
+    private static String artifactType(Artifact artifact) {
+        return artifact.getProperty(ArtifactProperties.TYPE, artifact.getExtension());
+    }
+
+    private static Dependency toDependency(Artifact artifact) {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId(artifact.getGroupId());
+        dependency.setArtifactId(artifact.getArtifactId());
+        dependency.setVersion(artifact.getBaseVersion());
+        dependency.setType(artifactType(artifact));
+        if (!artifact.getClassifier().isEmpty()) {
+            dependency.setClassifier(artifact.getClassifier());
+        }
+        return dependency;
+    }
 
     /**
      * Is the project included based on includes and excludes lists.
@@ -330,11 +478,13 @@ public class CreateBomMojo extends BaseMojo {
      * @return true if included, false if excluded
      */
     public boolean isIncluded(MavenProject mavenProject) {
-        boolean r = MojoUtilities.isIncluded(this.includes, this.excludes, mavenProject);
-        getLog().debug(String.format("isIncluded(%s:%s:%s:%s): %b", mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getVersion(), mavenProject.getPackaging(), r));
+        ProjectMatcher matcher = this.projectMatcher != null ? this.projectMatcher : ProjectMatcher.compile(this.includes, this.excludes);
+        boolean r = matcher.isIncluded(mavenProject);
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(String.format("isIncluded(%s:%s:%s:%s): %b", mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getVersion(), mavenProject.getPackaging(), r));
+        }
         return r;
     }
-
     /**
      * The main entry point for mojo.
      */
@@ -348,9 +498,7 @@ public class CreateBomMojo extends BaseMojo {
         getLog().debug(String.format("Current Project: %s:%s", currentProject.getGroupId(), currentProject.getArtifactId()));
         MavenProject topLevelProject = this.mavenSession.getTopLevelProject();
         getLog().debug(String.format("Top Level Project: %s:%s", topLevelProject.getGroupId(), topLevelProject.getArtifactId()));
-
         validateAndPrepareParameters();
-
         createBom(mavenSession);
     }
 
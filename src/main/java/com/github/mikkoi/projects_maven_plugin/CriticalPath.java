@@ -0,0 +1,218 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Critical path analysis of the project dependency graph, for goal critical-path.
+ * <p>
+ * The length of a chain of projects is the sum of the weights of its projects.
+ * Without build times every project weighs 1, so the critical path is the
+ * longest dependency chain. With build times it is the chain which takes
+ * the longest to build, and no number of threads can make the build faster than that.
+ * <p>
+ * Projects which are not included weigh 0: they still connect the included projects
+ * but are not reported.
+ * Everything is computed in one pass over the projects in build order.
+ */
+final class CriticalPath {
+
+    /**
+     * Projects on the critical path, the first one is built first.
+     */
+    private final List<MavenProject> path;
+    private final long length;
+    /**
+     * Number of included projects in every build wave.
+     */
+    private final int[] projectsPerWave;
+    /**
+     * Included projects with at least one dependent project, the most dependents first.
+     */
+    private final List<Map.Entry<MavenProject, Integer>> fanIn;
+    private final Map<ProjectKey, Long> weights;
+
+    private CriticalPath(ProjectDependencyGraph graph, Predicate<MavenProject> included, Map<ProjectKey, Long> weights) {
+        this.weights = weights;
+        List<MavenProject> sortedProjects = graph.getSortedProjects();
+        Map<MavenProject, Long> finish = new HashMap<>(sortedProjects.size() * 2);
+        Map<MavenProject, MavenProject> previous = new HashMap<>(sortedProjects.size() * 2);
+        Map<MavenProject, Boolean> isIncluded = new HashMap<>(sortedProjects.size() * 2);
+        MavenProject last = null;
+        long longest = -1;
+        for (MavenProject project : sortedProjects) {
+            boolean include = included.test(project);
+            isIncluded.put(project, include);
+            long start = 0;
+            MavenProject before = null;
+            for (MavenProject upstream : graph.getUpstreamProjects(project, false)) {
+                Long upstreamFinish = finish.get(upstream);
+                if (upstreamFinish != null && (before == null || upstreamFinish > start)) {
+                    start = upstreamFinish;
+                    before = upstream;
+                }
+            }
+            if (before != null) {
+                previous.put(project, before);
+            }
+            long end = start + (include ? weight(project) : 0);
+            finish.put(project, end);
+            if (include && end > longest) {
+                longest = end;
+                last = project;
+            }
+        }
+        List<MavenProject> chain = new ArrayList<>();
+        for (MavenProject project = last; project != null; project = previous.get(project)) {
+            if (isIncluded.get(project)) {
+                chain.add(project);
+            }
+        }
+        Collections.reverse(chain);
+        this.path = Collections.unmodifiableList(chain);
+        this.length = Math.max(longest, 0);
+
+        ReactorOrder order = ReactorOrder.of(graph);
+        int waves = 0;
+        List<Map.Entry<MavenProject, Integer>> dependents = new ArrayList<>();
+        for (MavenProject project : sortedProjects) {
+            if (isIncluded.get(project)) {
+                waves = Math.max(waves, order.getWave(project) + 1);
+                int count = 0;
+                for (MavenProject downstream : graph.getDownstreamProjects(project, false)) {
+                    if (Boolean.TRUE.equals(isIncluded.get(downstream))) {
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    dependents.add(new AbstractMap.SimpleImmutableEntry<>(project, count));
+                }
+            }
+        }
+        this.projectsPerWave = new int[waves];
+        for (MavenProject project : sortedProjects) {
+            if (isIncluded.get(project)) {
+                this.projectsPerWave[order.getWave(project)]++;
+            }
+        }
+        dependents.sort(Comparator.<Map.Entry<MavenProject, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(entry -> MojoUtilities.getSortKey(entry.getKey())));
+        this.fanIn = Collections.unmodifiableList(dependents);
+    }
+
+    /**
+     * Analyse the build.
+     *
+     * @param graph    Project dependency graph of the build
+     * @param included Projects to report
+     * @param weights  Build time of every project, or null to weigh every project 1
+     * @return the analysis
+     */
+    static CriticalPath of(ProjectDependencyGraph graph, Predicate<MavenProject> included, Map<ProjectKey, Long> weights) {
+        return new CriticalPath(graph, included, weights);
+    }
+
+    /**
+     * Weight of a project: its build time, 0 if not known, or 1 without build times.
+     *
+     * @param project Project
+     * @return the weight
+     */
+    long weight(MavenProject project) {
+        if (weights == null) {
+            return 1;
+        }
+        Long weight = weights.get(ProjectKey.of(project));
+        return weight == null ? 0 : weight;
+    }
+
+    /**
+     * Projects on the critical path, in build order.
+     *
+     * @return the projects
+     */
+    List<MavenProject> getPath() {
+        return path;
+    }
+
+    /**
+     * Length of the critical path: sum of the weights of its projects.
+     *
+     * @return the length
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Number of included projects in every build wave.
+     * This is how many projects can be built at the same time at each level.
+     *
+     * @return the numbers, index is the wave
+     */
+    int[] getProjectsPerWave() {
+        return projectsPerWave.clone();
+    }
+
+    /**
+     * Included projects which other included projects depend on directly,
+     * the most dependents first.
+     *
+     * @return projects and numbers of dependent projects
+     */
+    List<Map.Entry<MavenProject, Integer>> getFanIn() {
+        return fanIn;
+    }
+
+    /**
+     * Read build times of projects.
+     * Every row is groupId:artifactId and the build time in milliseconds,
+     * separated with whitespace. Empty rows and rows starting with # are skipped.
+     *
+     * @param file File
+     * @return build times by project
+     * @throws IOException if the file cannot be read or has an invalid row
+     */
+    static Map<ProjectKey, Long> readBuildTimes(Path file) throws IOException {
+        Map<ProjectKey, Long> times = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String row;
+            int number = 0;
+            while ((row = reader.readLine()) != null) {
+                number++;
+                String trimmed = row.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = trimmed.split("\\s+");
+                int colon = columns[0].indexOf(':');
+                try {
+                    if (columns.length != 2 || colon <= 0 || colon == columns[0].length() - 1) {
+                        throw new NumberFormatException();
+                    }
+                    times.put(ProjectKey.of(columns[0].substring(0, colon), columns[0].substring(colon + 1)),
+                            Long.parseLong(columns[1]));
+                } catch (NumberFormatException e) {
+                    throw new IOException(String.format(
+                            "Invalid row %d in build times file '%s', expected 'groupId:artifactId milliseconds': %s",
+                            number, file, row), e);
+                }
+            }
+        }
+        return times;
+    }
+}
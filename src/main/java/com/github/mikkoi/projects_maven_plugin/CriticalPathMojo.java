@@ -0,0 +1,144 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report the critical path of the build: the longest chain of projects
+ * which depend on each other, the number of projects which can be built
+ * at the same time on every level of the build and the projects
+ * which most other projects depend on.
+ * <p>
+ * These tell which projects serialize a parallel build (-T).
+ * See {@link CriticalPath}.
+ */
+@Mojo(name = "critical-path", defaultPhase = LifecyclePhase.NONE, aggregator = true)
+public class CriticalPathMojo extends BaseMojo {
+
+    /**
+     * Include by project [groupId:]artifactId.
+     * Default value: all projects included.
+     */
+    @Parameter(property = "projects" + ".criticalPath" + ".includes")
+    List<String> includes;
+
+    /**
+     * Exclude by project [groupId:]artifactId.
+     * Excluded projects are not reported and do not add to the length of a path,
+     * but the dependencies through them are followed.
+     * Default value: No projects excluded.
+     */
+    @Parameter(property = "projects" + ".criticalPath" + ".excludes")
+    List<String> excludes;
+
+    /**
+     * Build times of the projects from an earlier build.
+     * Every row is groupId:artifactId and the build time in milliseconds, separated with whitespace.
+     * Empty rows and rows starting with # are skipped.
+     * A project which is not in the file weighs 0.
+     * Default: no file, every project weighs 1.
+     */
+    @Parameter(property = "projects" + ".criticalPath" + ".buildTimesFile")
+    File buildTimesFile;
+
+    /**
+     * Number of projects with the highest fan-in to report.
+     */
+    @Parameter(property = "projects" + ".criticalPath" + ".topFanIn", defaultValue = "10")
+    int topFanIn;
+
+    /**
+     * Includes and excludes compiled for matching.
+     */
+    private ProjectMatcher projectMatcher;
+
+    /**
+     * Build times by project, or null.
+     */
+    private Map<ProjectKey, Long> buildTimes;
+
+    /**
+     * Validate parameters provided via properties
+     * either on the command line or using configuration element in pom.
+     */
+    void validateAndPrepareParameters() throws MojoExecutionException {
+        getLog().debug("includes=" + includes);
+        getLog().debug("excludes=" + excludes);
+        getLog().debug("buildTimesFile=" + buildTimesFile);
+        getLog().debug("topFanIn=" + topFanIn);
+
+        projectMatcher = ProjectMatcher.compileOrAll(includes, excludes);
+        if (topFanIn < 0) {
+            throw new MojoExecutionException("Failure in parameter 'topFanIn'. Must not be negative.");
+        }
+        if (buildTimesFile != null) {
+            try {
+                buildTimes = CriticalPath.readBuildTimes(buildTimesFile.toPath());
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failure in parameter 'buildTimesFile'. " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Create the report rows.
+     *
+     * @param criticalPath Analysis
+     * @return the rows
+     */
+    List<String> report(CriticalPath criticalPath) {
+        String unit = buildTimes == null ? "" : " ms";
+        List<String> rows = new ArrayList<>();
+        List<MavenProject> path = criticalPath.getPath();
+        rows.add(String.format("Critical path: %d projects, length %d%s", path.size(), criticalPath.getLength(), unit));
+        for (MavenProject project : path) {
+            rows.add(String.format("    %s %d%s", ProjectKey.of(project), criticalPath.weight(project), unit));
+        }
+
+        int[] projectsPerWave = criticalPath.getProjectsPerWave();
+        int widest = 0;
+        for (int wave = 1; wave < projectsPerWave.length; wave++) {
+            if (projectsPerWave[wave] > projectsPerWave[widest]) {
+                widest = wave;
+            }
+        }
+        rows.add(projectsPerWave.length == 0
+                ? "Projects per build wave: none"
+                : String.format("Projects per build wave: %d waves, maximum parallelism %d in wave %d",
+                projectsPerWave.length, projectsPerWave[widest], widest));
+        for (int wave = 0; wave < projectsPerWave.length; wave++) {
+            rows.add(String.format("    wave %d: %d", wave, projectsPerWave[wave]));
+        }
+
+        List<Map.Entry<MavenProject, Integer>> fanIn = criticalPath.getFanIn();
+        rows.add(String.format("Highest fan-in: %d of %d projects", Math.min(topFanIn, fanIn.size()), fanIn.size()));
+        for (Map.Entry<MavenProject, Integer> entry : fanIn.subList(0, Math.min(topFanIn, fanIn.size()))) {
+            rows.add(String.format("    %s %d dependent projects", ProjectKey.of(entry.getKey()), entry.getValue()));
+        }
+        return rows;
+    }
+
+    /**
+     * The main entry point for mojo.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            getLog().info("Skip execution ...");
+            return;
+        }
+        validateAndPrepareParameters();
+
+        CriticalPath criticalPath = CriticalPath.of(mavenSession.getProjectDependencyGraph(), projectMatcher::isIncluded, buildTimes);
+        printOut(report(criticalPath).stream());
+    }
+}
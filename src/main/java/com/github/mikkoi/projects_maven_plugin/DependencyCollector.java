@@ -0,0 +1,216 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactTypeRegistry;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Collect the external dependencies of projects in the build, for goal create-bom.
+ * <p>
+ * The dependency tree of every project is collected with the repository system,
+ * like Maven does for the project itself, so the versions are the ones Maven would
+ * pick after dependency management and conflict resolution.
+ * Dependencies on the projects in the build are followed through the workspace of the session,
+ * but the projects themselves are left out of the result.
+ * <p>
+ * The projects are collected in parallel on a bounded pool of threads.
+ * Projects with the same dependencies, managed dependencies and repositories
+ * make the same request, and the request is made only once: the result is cached by
+ * the content of the request. The repository system session caches the artifact
+ * descriptors, so a subtree shared by several projects is read only once.
+ */
+final class DependencyCollector {
+
+    private final RepositorySystem repositorySystem;
+    private final RepositorySystemSession session;
+    private final Set<String> scopes;
+    private final int threads;
+    /**
+     * Collected artifacts by the content of the request.
+     */
+    private final ConcurrentMap<String, Future<List<Artifact>>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Create a collector.
+     *
+     * @param repositorySystem Repository system
+     * @param session          Repository system session of the build
+     * @param scopes           Scopes of the dependencies to collect, e.g. compile and runtime
+     * @param threads          Number of threads, at least 1
+     */
+    DependencyCollector(RepositorySystem repositorySystem, RepositorySystemSession session, Collection<String> scopes, int threads) {
+        this.repositorySystem = repositorySystem;
+        this.session = session;
+        this.scopes = new HashSet<>(scopes);
+        this.threads = threads;
+    }
+
+    /**
+     * Collect the external dependencies of projects.
+     *
+     * @param projects Projects to collect
+     * @param reactor  All projects in the build, these are left out of the result
+     * @return artifacts by project, in the order of the projects
+     * @throws DependencyCollectionException if the dependencies of a project cannot be collected
+     */
+    Map<MavenProject, List<Artifact>> collect(List<MavenProject> projects, Collection<MavenProject> reactor)
+            throws DependencyCollectionException {
+        Set<ProjectKey> reactorKeys = new HashSet<>(reactor.size() * 2);
+        for (MavenProject project : reactor) {
+            reactorKeys.add(ProjectKey.of(project));
+        }
+        Map<MavenProject, Future<List<Artifact>>> futures = new IdentityHashMap<>(projects.size() * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, projects.size())));
+        try {
+            for (MavenProject project : projects) {
+                futures.put(project, executor.submit(() -> collect(createRequest(project), reactorKeys)));
+            }
+            Map<MavenProject, List<Artifact>> result = new LinkedHashMap<>(projects.size() * 2);
+            for (MavenProject project : projects) {
+                result.put(project, get(futures.get(project)));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Collect with one request, or wait for the same request made by another thread.
+     */
+    private List<Artifact> collect(CollectRequest request, Set<ProjectKey> reactorKeys) throws DependencyCollectionException {
+        String key = requestKey(request);
+        FutureTask<List<Artifact>> task = new FutureTask<>(() -> artifacts(
+                repositorySystem.collectDependencies(session, request).getRoot(), scopes, reactorKeys));
+        Future<List<Artifact>> existing = cache.putIfAbsent(key, task);
+        if (existing != null) {
+            return get(existing);
+        }
+        task.run();
+        return get(task);
+    }
+
+    private static List<Artifact> get(Future<List<Artifact>> future) throws DependencyCollectionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting dependencies", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DependencyCollectionException) {
+                throw (DependencyCollectionException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Create the request for collecting the dependencies of a project.
+     * The request has no root artifact, so projects with the same dependencies make equal requests.
+     *
+     * @param project Project
+     * @return the request
+     */
+    CollectRequest createRequest(MavenProject project) {
+        ArtifactTypeRegistry types = session.getArtifactTypeRegistry();
+        CollectRequest request = new CollectRequest();
+        for (org.apache.maven.model.Dependency dependency : project.getDependencies()) {
+            request.addDependency(RepositoryUtils.toDependency(dependency, types));
+        }
+        if (project.getDependencyManagement() != null) {
+            for (org.apache.maven.model.Dependency dependency : project.getDependencyManagement().getDependencies()) {
+                request.addManagedDependency(RepositoryUtils.toDependency(dependency, types));
+            }
+        }
+        request.setRepositories(project.getRemoteProjectRepositories());
+        request.setRequestContext("project");
+        return request;
+    }
+
+    /**
+     * Key with the content of a request: dependencies, managed dependencies and repositories.
+     *
+     * @param request Request
+     * @return the key
+     */
+    static String requestKey(CollectRequest request) {
+        StringBuilder key = new StringBuilder(256);
+        for (Dependency dependency : request.getDependencies()) {
+            appendDependency(key.append('D'), dependency);
+        }
+        for (Dependency dependency : request.getManagedDependencies()) {
+            appendDependency(key.append('M'), dependency);
+        }
+        for (RemoteRepository repository : request.getRepositories()) {
+            key.append('R').append(repository.getId()).append('=').append(repository.getUrl()).append('\n');
+        }
+        return key.toString();
+    }
+
+    private static void appendDependency(StringBuilder key, Dependency dependency) {
+        key.append(dependency.getArtifact()).append(' ').append(dependency.getScope())
+                .append(' ').append(dependency.getOptional());
+        for (Exclusion exclusion : dependency.getExclusions()) {
+            key.append(' ').append(exclusion);
+        }
+        key.append('\n');
+    }
+
+    /**
+     * The artifacts in a collected dependency tree, in preorder, each once.
+     * Artifacts of the projects in the build and dependencies not in the scopes are left out,
+     * but their dependencies are still visited.
+     *
+     * @param root        Root of the tree
+     * @param scopes      Scopes to include
+     * @param reactorKeys Projects in the build
+     * @return the artifacts
+     */
+    static List<Artifact> artifacts(DependencyNode root, Set<String> scopes, Set<ProjectKey> reactorKeys) {
+        List<Artifact> artifacts = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<DependencyNode> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            DependencyNode node = stack.remove(stack.size() - 1);
+            Dependency dependency = node.getDependency();
+            if (dependency != null && scopes.contains(dependency.getScope())) {
+                Artifact artifact = dependency.getArtifact();
+                if (!reactorKeys.contains(ProjectKey.of(artifact.getGroupId(), artifact.getArtifactId()))
+                        && seen.add(artifact.toString())) {
+                    artifacts.add(artifact);
+                }
+            }
+            List<DependencyNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.add(children.get(i));
+            }
+        }
+        return artifacts;
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rule for the dependencies which goal add-internal adds.
+ * <p>
+ * The pattern is matched like includes and excludes.
+ * The first rule whose pattern matches the project decides
+ * the scope, type and classifier of the dependency.
+ * A value which the rule does not set comes from the goal parameters.
+ * <p>
+ * Example:
+ * <pre>
+ * &lt;dependencyRules&gt;
+ *     &lt;dependencyRule&gt;
+ *         &lt;pattern&gt;*-it&lt;/pattern&gt;
+ *         &lt;scope&gt;test&lt;/scope&gt;
+ *     &lt;/dependencyRule&gt;
+ *     &lt;dependencyRule&gt;
+ *         &lt;pattern&gt;*:*:pom&lt;/pattern&gt;
+ *         &lt;type&gt;pom&lt;/type&gt;
+ *     &lt;/dependencyRule&gt;
+ * &lt;/dependencyRules&gt;
+ * </pre>
+ */
+public class DependencyRule {
+
+    /**
+     * Valid values for scope.
+     */
+    static final List<String> SCOPES = Collections.unmodifiableList(Arrays.asList("compile", "provided", "runtime", "test"));
+
+    private String pattern;
+    private String scope;
+    private String type;
+    private String classifier;
+
+    /**
+     * Pattern compiled for matching.
+     */
+    private ProjectMatcher matcher;
+
+    /**
+     * Create an empty rule, used by Maven when configuring the goal.
+     */
+    public DependencyRule() {
+        // Values are set with setters
+    }
+
+    /**
+     * Create a rule.
+     *
+     * @param pattern    Pattern, [groupId:]artifactId[:packaging] with wildcards
+     * @param scope      Scope, or null
+     * @param type       Type, or null
+     * @param classifier Classifier, or null
+     */
+    public DependencyRule(String pattern, String scope, String type, String classifier) {
+        this.pattern = pattern;
+        this.scope = scope;
+        this.type = type;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Validate the rule and compile its pattern.
+     *
+     * @throws IllegalArgumentException if the rule is not valid
+     */
+    void compile() {
+        if (pattern == null || pattern.trim().isEmpty()) {
+            throw new IllegalArgumentException("Dependency rule has no pattern");
+        }
+        validateScope(scope);
+        matcher = ProjectMatcher.compile(Collections.singletonList(pattern.trim()), Collections.<String>emptyList());
+    }
+
+    /**
+     * Check that a scope is valid.
+     *
+     * @param scope Scope, or null
+     * @throws IllegalArgumentException if the scope is not valid
+     */
+    static void validateScope(String scope) {
+        if (scope != null && !SCOPES.contains(scope)) {
+            throw new IllegalArgumentException(String.format("Invalid scope '%s'. Allowed values: %s", scope, SCOPES));
+        }
+    }
+
+    /**
+     * Does the rule apply to the project.
+     *
+     * @param project Project
+     * @return true if the pattern matches
+     */
+    boolean matches(MavenProject project) {
+        if (matcher == null) {
+            compile();
+        }
+        return matcher.isIncluded(project);
+    }
+
+    /**
+     * Set the values of this rule to a dependency.
+     * Values not set in this rule are not changed.
+     *
+     * @param dependency Dependency
+     */
+    void applyTo(Dependency dependency) {
+        if (scope != null) {
+            dependency.setScope(scope);
+        }
+        if (type != null) {
+            dependency.setType(type);
+        }
+        if (classifier != null) {
+            dependency.setClassifier(classifier);
+        }
+    }
+
+    /**
+     * Pattern, [groupId:]artifactId[:packaging] with wildcards.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Pattern, [groupId:]artifactId[:packaging] with wildcards.
+     *
+     * @param pattern the pattern
+     */
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+        this.matcher = null;
+    }
+
+    /**
+     * Scope of the dependency: compile, provided, runtime or test.
+     *
+     * @return the scope, or null
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * Scope of the dependency: compile, provided, runtime or test.
+     *
+     * @param scope the scope
+     */
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Type of the dependency, e.g. jar, pom or test-jar.
+     *
+     * @return the type, or null
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Type of the dependency, e.g. jar, pom or test-jar.
+     *
+     * @param type the type
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Classifier of the dependency.
+     *
+     * @return the classifier, or null
+     */
+    public String getClassifier() {
+        return classifier;
+    }
+
+    /**
+     * Classifier of the dependency.
+     *
+     * @param classifier the classifier
+     */
+    public void setClassifier(String classifier) {
+        this.classifier = classifier;
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyRule{"
+                + "pattern='" + pattern + '\''
+                + ", scope='" + scope + '\''
+                + ", type='" + type + '\''
+                + ", classifier='" + classifier + '\''
+                + '}';
+    }
+}
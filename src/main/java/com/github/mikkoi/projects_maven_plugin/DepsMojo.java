@@ -0,0 +1,95 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.util.List;
+
+/**
+ * List the projects in the build which the selected projects depend on,
+ * through the dependencies declared in the projects.
+ * See goal rdeps for the reverse query.
+ * <p>
+ * The output is like in goal list. See {@link ReactorQueryMojo}.
+ */
+@Mojo(name = "deps", defaultPhase = LifecyclePhase.NONE, aggregator = true)
+public class DepsMojo extends ReactorQueryMojo {
+
+    /**
+     * Create the goal.
+     */
+    public DepsMojo() {
+        super(Direction.DEPENDENCIES);
+    }
+
+    /**
+     * Select the projects whose dependencies are listed, by project [groupId:]artifactId.
+     * Default value: all projects selected.
+     *
+     * @param includes the includes
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".includes")
+    public void setIncludes(List<String> includes) {
+        super.setIncludes(includes);
+    }
+
+    /**
+     * Exclude projects from the selection by project [groupId:]artifactId.
+     * Default value: No projects excluded.
+     *
+     * @param excludes the excludes
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".excludes")
+    public void setExcludes(List<String> excludes) {
+        super.setExcludes(excludes);
+    }
+
+    /**
+     * Also list the dependencies of the dependencies.
+     *
+     * @param transitive true to follow transitively
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".transitive", defaultValue = "false")
+    public void setTransitive(boolean transitive) {
+        super.setTransitive(transitive);
+    }
+
+    /**
+     * Sorting order: maven | alphabetic | topological | reverse-topological | waves, default: maven
+     *
+     * @param sortOrder the sort order
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".sortOrder", defaultValue = "maven")
+    public void setSortOrder(String sortOrder) {
+        super.setSortOrder(sortOrder);
+    }
+
+    /**
+     * Format for printing, with the same placeholders as in goal list.
+     * Default value: {groupId}:{artifactId}
+     *
+     * @param printFormat the print format
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".printFormat", defaultValue = "{groupId}:{artifactId}")
+    public void setPrintFormat(String printFormat) {
+        super.setPrintFormat(printFormat);
+    }
+
+    /**
+     * Output format: text | json | ndjson | csv, see goal list.
+     * Default: text
+     *
+     * @param outputFormat the output format
+     */
+    @Override
+    @Parameter(property = "projects" + ".deps" + ".outputFormat", defaultValue = "text")
+    public void setOutputFormat(String outputFormat) {
+        super.setOutputFormat(outputFormat);
+    }
+}
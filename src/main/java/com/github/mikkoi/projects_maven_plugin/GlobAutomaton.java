@@ -0,0 +1,328 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All include and exclude glob patterns merged into one automaton.
+ * <p>
+ * The patterns are stored in a trie where every edge is either
+ * a literal character or a wildcard (*), so patterns with a common
+ * beginning share their nodes. Walking the trie with a project id
+ * keeps a small set of active nodes, regardless of the number of patterns.
+ * The sets of active nodes are the states of a deterministic automaton
+ * which is built lazily, when a project id needs them, and cached for later ids.
+ * Classifying a project id is then a single pass over its characters.
+ * <p>
+ * Only patterns which consist of literal parts and wildcards can be added.
+ * See {@link ProjectMatcher#splitLiterals(String)}.
+ * <p>
+ * The automaton can be shared between threads.
+ */
+final class GlobAutomaton {
+
+    /**
+     * Maximum number of cached deterministic states.
+     * After this, new states are computed for each use but not stored,
+     * so the memory use stays bounded even with pathological patterns.
+     */
+    static final int MAX_CACHED_STATES = 10_000;
+
+    /** Accept flag: an include pattern matched. */
+    static final int INCLUDE = 1;
+    /** Accept flag: an exclude pattern matched. */
+    static final int EXCLUDE = 2;
+
+    private static final int[] NO_NODES = new int[0];
+
+    /** For every trie node: is it reached with a wildcard. A wildcard node loops on any character. */
+    private final boolean[] wildcard;
+    /** For every trie node: the node reached with a wildcard from it, or -1. */
+    private final int[] wildcardChild;
+    /** For every trie node: sorted characters of the literal edges. */
+    private final char[][] edgeChars;
+    /** For every trie node: the nodes reached with the characters in edgeChars. */
+    private final int[][] edgeTargets;
+    /** For every trie node: accept flags of the patterns ending in it. */
+    private final int[] accepts;
+
+    private final Map<StateSet, State> states = new ConcurrentHashMap<>();
+    private final State start;
+
+    private GlobAutomaton(boolean[] wildcard, int[] wildcardChild, char[][] edgeChars, int[][] edgeTargets, int[] accepts) {
+        this.wildcard = wildcard;
+        this.wildcardChild = wildcardChild;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.accepts = accepts;
+        this.start = state(closure(new int[] {0}, 1));
+    }
+
+    /**
+     * Classify a project id.
+     *
+     * @param projectId Project id
+     * @return bit flags {@link #INCLUDE} and {@link #EXCLUDE}
+     */
+    int classify(String projectId) {
+        State state = start;
+        for (int i = 0; i < projectId.length() && !state.isDead(); i++) {
+            state = state.next(projectId.charAt(i));
+        }
+        return state.accept;
+    }
+
+    /**
+     * Number of cached deterministic states.
+     *
+     * @return count
+     */
+    int cachedStates() {
+        return states.size();
+    }
+
+    /**
+     * Number of trie nodes.
+     *
+     * @return count
+     */
+    int nodes() {
+        return accepts.length;
+    }
+
+    private State state(int[] nodes) {
+        StateSet key = new StateSet(nodes);
+        State state = states.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (states.size() >= MAX_CACHED_STATES) {
+            return new State(nodes, acceptOf(nodes), false);
+        }
+        state = new State(nodes, acceptOf(nodes), true);
+        State previous = states.putIfAbsent(key, state);
+        return previous == null ? state : previous;
+    }
+
+    private int acceptOf(int[] nodes) {
+        int accept = 0;
+        for (int node : nodes) {
+            accept |= accepts[node];
+        }
+        return accept;
+    }
+
+    private State step(State from, char c) {
+        int[] next = new int[from.nodes.length * 2];
+        int count = 0;
+        for (int node : from.nodes) {
+            if (wildcard[node]) {
+                next[count++] = node;
+            }
+            int edge = Arrays.binarySearch(edgeChars[node], c);
+            if (edge >= 0) {
+                next[count++] = edgeTargets[node][edge];
+            }
+        }
+        return state(closure(next, count));
+    }
+
+    /**
+     * Add the nodes reachable without consuming a character:
+     * a wildcard can also match nothing.
+     * Returns the nodes sorted and without duplicates.
+     */
+    private int[] closure(int[] nodes, int count) {
+        if (count == 0) {
+            return NO_NODES;
+        }
+        int[] result = Arrays.copyOf(nodes, count * 2);
+        int size = count;
+        for (int i = 0; i < size; i++) {
+            int child = wildcardChild[result[i]];
+            if (child >= 0) {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = child;
+            }
+        }
+        Arrays.sort(result, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[unique++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    /**
+     * Builder for the automaton.
+     */
+    static final class Builder {
+        private final List<Node> nodes = new ArrayList<>();
+        private int patterns;
+
+        Builder() {
+            nodes.add(new Node(false));
+        }
+
+        /**
+         * Add a pattern.
+         *
+         * @param literals Literal parts between wildcards, as from splitLiterals
+         * @param flag     {@link #INCLUDE} or {@link #EXCLUDE}
+         * @return this builder
+         */
+        Builder add(List<String> literals, int flag) {
+            int node = 0;
+            for (int l = 0; l < literals.size(); l++) {
+                if (l > 0) {
+                    Node current = nodes.get(node);
+                    if (current.wildcardChild < 0) {
+                        current.wildcardChild = nodes.size();
+                        nodes.add(new Node(true));
+                    }
+                    node = current.wildcardChild;
+                }
+                String literal = literals.get(l);
+                for (int i = 0; i < literal.length(); i++) {
+                    Node current = nodes.get(node);
+                    Integer child = current.edges.get(literal.charAt(i));
+                    if (child == null) {
+                        child = nodes.size();
+                        current.edges.put(literal.charAt(i), child);
+                        nodes.add(new Node(false));
+                    }
+                    node = child;
+                }
+            }
+            nodes.get(node).accept |= flag;
+            patterns++;
+            return this;
+        }
+
+        /**
+         * Number of patterns added.
+         *
+         * @return count
+         */
+        int size() {
+            return patterns;
+        }
+
+        /**
+         * Build the automaton.
+         *
+         * @return the automaton
+         */
+        GlobAutomaton build() {
+            int count = nodes.size();
+            boolean[] wildcard = new boolean[count];
+            int[] wildcardChild = new int[count];
+            char[][] edgeChars = new char[count][];
+            int[][] edgeTargets = new int[count][];
+            int[] accepts = new int[count];
+            for (int n = 0; n < count; n++) {
+                Node node = nodes.get(n);
+                wildcard[n] = node.wildcard;
+                wildcardChild[n] = node.wildcardChild;
+                accepts[n] = node.accept;
+                edgeChars[n] = new char[node.edges.size()];
+                edgeTargets[n] = new int[node.edges.size()];
+                int e = 0;
+                for (Map.Entry<Character, Integer> edge : node.edges.entrySet()) {
+                    edgeChars[n][e] = edge.getKey();
+                    edgeTargets[n][e] = edge.getValue();
+                    e++;
+                }
+            }
+            return new GlobAutomaton(wildcard, wildcardChild, edgeChars, edgeTargets, accepts);
+        }
+
+        /**
+         * Trie node while building.
+         */
+        private static final class Node {
+            private final boolean wildcard;
+            /** Sorted, so that the frozen edges can be binary searched. */
+            private final Map<Character, Integer> edges = new TreeMap<>();
+            private int wildcardChild = -1;
+            private int accept;
+
+            Node(boolean wildcard) {
+                this.wildcard = wildcard;
+            }
+        }
+    }
+
+    /**
+     * Sorted set of trie nodes, used as cache key.
+     */
+    private static final class StateSet {
+        private final int[] nodes;
+        private final int hash;
+
+        StateSet(int[] nodes) {
+            this.nodes = nodes;
+            this.hash = Arrays.hashCode(nodes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateSet && Arrays.equals(nodes, ((StateSet) o).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Deterministic state with lazily filled transitions.
+     */
+    private final class State {
+        private final int[] nodes;
+        private final int accept;
+        private final boolean cached;
+        private final State[] ascii = new State[128];
+        private final Map<Character, State> others = new ConcurrentHashMap<>();
+
+        State(int[] nodes, int accept, boolean cached) {
+            this.nodes = nodes;
+            this.accept = accept;
+            this.cached = cached;
+        }
+
+        boolean isDead() {
+            return nodes.length == 0;
+        }
+
+        State next(char c) {
+            if (c < ascii.length) {
+                State next = ascii[c];
+                if (next == null) {
+                    next = step(this, c);
+                    if (next.cached) {
+                        ascii[c] = next;
+                    }
+                }
+                return next;
+            }
+            State next = others.get(c);
+            if (next == null) {
+                next = step(this, c);
+                if (next.cached) {
+                    others.put(c, next);
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Write a file only if its content changes, for the BOM file of goal create-bom.
+ * <p>
+ * The content is written to a temporary file in the same directory and hashed with SHA-256
+ * on the way. The hash of the current file is kept in a file alongside it,
+ * named like the file with suffix {@code .sha256}, in the format of sha256sum.
+ * If the hashes are the same, the temporary file is deleted and the file is not touched,
+ * so its modification time stays and the steps after it see no change.
+ * Otherwise the temporary file is moved over the file atomically,
+ * so a reader never sees a half written file.
+ */
+final class IncrementalFile {
+
+    /**
+     * Suffix of the file with the hash.
+     */
+    static final String HASH_SUFFIX = ".sha256";
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        /**
+         * Write the content.
+         *
+         * @param out Stream to write to, may be closed by the writer
+         * @throws IOException if writing fails
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    private IncrementalFile() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Write a file if its content has changed.
+     *
+     * @param path   File
+     * @param writer Writes the content
+     * @return true if the file was written, false if it was unchanged
+     * @throws IOException if writing fails
+     */
+    static boolean write(Path path, ContentWriter writer) throws IOException {
+        Path file = path.toAbsolutePath();
+        Path hashFile = file.resolveSibling(file.getFileName() + HASH_SUFFIX);
+        // Not Files.createTempFile, which would give the file owner only permissions.
+        Path temp = file.resolveSibling("." + file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)), digest)) {
+                writer.write(out);
+            }
+            String hash = toHex(digest.digest());
+            if (hash.equals(readHash(file, hashFile))) {
+                return false;
+            }
+            move(temp, file);
+            Files.write(temp, (hash + "  " + file.getFileName() + "\n").getBytes(StandardCharsets.UTF_8));
+            move(temp, hashFile);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hash of the current file, from the file with the hash.
+     *
+     * @return the hash, or null if the file or the hash is missing
+     */
+    private static String readHash(Path file, Path hashFile) throws IOException {
+        if (!Files.isRegularFile(file) || !Files.isRegularFile(hashFile)) {
+            return null;
+        }
+        List<String> rows = Files.readAllLines(hashFile, StandardCharsets.UTF_8);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        String row = rows.get(0).trim();
+        int space = row.indexOf(' ');
+        return space < 0 ? row : row.substring(0, space);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hexadecimal form of bytes, lower case.
+     *
+     * @param bytes Bytes
+     * @return the hexadecimal string
+     */
+    static String toHex(byte[] bytes) {
+        char[] digits = "0123456789abcdef".toCharArray();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = digits[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = digits[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -6,10 +6,14 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * List all projects in the build.
@@ -56,7 +60,9 @@ public class ListMojo extends BaseMojo {
 
     /**
      * Sorting order.
-     * Valid values: maven | alphabetic
+     * Valid values: maven | alphabetic (or alphabetical) | topological | reverse-topological | waves
+     * The last three are computed from the project dependency graph.
+     * In waves order the projects are grouped into build waves, see placeholder {wave}.
      * Default: maven
      * @param sortOrder the sort order
      */
@@ -72,22 +78,87 @@ public class ListMojo extends BaseMojo {
 
     /**
      * Format for printing.
+     * Placeholders: {groupId}, {artifactId}, {name}, {description}, {version}, {absPath}, {packaging},
+     * {relPath}, {pomFile}, {parent}, {depCount}, {modules}, {wave} and {property:name}.
+     * {wave} is the build wave of the project: 0 if it depends on no other project in the build,
+     * otherwise one more than the highest wave of the projects it depends on.
+     * Only the placeholders used in the format are computed.
      * Default value: {groupId}:{artifactId}:{packaging}
      * @param printFormat the print format
      */
     @Parameter(property = "projects" + ".list" + ".printFormat", defaultValue = "{groupId}:{artifactId}:{packaging}")
     public void setPrintFormat(String printFormat) {
         this.printFormat = printFormat;
+        this.projectFormat = null;
     }
 
+    /**
+     * Output format.
+     */
+    private String outputFormat;
+
+    /**
+     * Output format.
+     * Valid values: text | json | ndjson | csv
+     * With text, the projects are printed with the print format.
+     * With the others, every project is a record which has
+     * the placeholders in the print format as fields.
+     * Default: text
+     * @param outputFormat the output format
+     */
+    @Parameter(property = "projects" + ".list" + ".outputFormat", defaultValue = "text")
+    public void setOutputFormat(String outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * Output format resolved from the parameter.
+     */
+    private OutputFormat resolvedOutputFormat = OutputFormat.TEXT;
+
+    /**
+     * Index file for listing without Maven.
+     */
+    private File indexFile;
+
+    /**
+     * Index file for listing without Maven.
+     * If set, an index of all projects in the build is written to this file,
+     * e.g. target/projects-index.txt, and it can be read with
+     * {@link ProjectIndex#main(String[])}.
+     * The file is rewritten only if a POM file has changed.
+     * Default: no index
+     * @param indexFile the index file
+     */
+    @Parameter(property = "projects" + ".list" + ".indexFile")
+    public void setIndexFile(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Print format compiled for formatting.
+     */
+    private ProjectFormat projectFormat;
+
+    /**
+     * Includes and excludes compiled for matching.
+     */
+    private ProjectMatcher projectMatcher;
+
+    /**
+     * Build order and waves, computed from the project dependency graph when first needed.
+     */
+    private ReactorOrder reactorOrder;
+
     /**
      * Validate parameters provided via properties
      * either on the command line or using configuration element in pom.
      */
-    private void validateAndPrepareParameters() throws MojoExecutionException {
+    void validateAndPrepareParameters() throws MojoExecutionException {
         getLog().debug("includes=" + includes);
         getLog().debug("excludes=" + excludes);
         getLog().debug("sortOrder=" + sortOrder);
+        getLog().debug("outputFormat=" + outputFormat);
 
         for (String a : includes) {
             if (a == null) {
@@ -104,75 +175,77 @@ public class ListMojo extends BaseMojo {
             }
         }
 
+        projectMatcher = ProjectMatcher.compile(includes, excludes);
+
+        Map<String, Function<MavenProject, String>> fields = ProjectFormat.fields(getRootDirectory());
+        fields.put("wave", project -> {
+            Integer wave = getReactorOrder() == null ? null : getReactorOrder().getWave(project);
+            return wave == null ? null : wave.toString();
+        });
+        projectFormat = resolvePrintFormat(printFormat, fields);
+
+        if (resolveSortOrder(sortOrder).isGraphOrder() && getReactorOrder() == null) {
+            throw new MojoExecutionException(String.format(
+                    "Failure in parameter 'sortOrder'. Sort order '%s' needs the project dependency graph.", sortOrder));
+        }
+
+        resolvedOutputFormat = resolveOutputFormat(outputFormat);
     }
 
     /**
-     * Convert list of projects to a list of strings.
+     * Convert list of projects to a stream of strings.
+     * The stream is lazy: each row is formatted only when it is consumed,
+     * so the first row can be written out before the last project is formatted
+     * and the rows are never all held in memory.
+     * With sort order "maven" the projects are not sorted at all.
+     * The rows are in the output format, see {@link #setOutputFormat(String)}.
      *
      * @param projects   List of MavenProject objects.
-     * @return String    List of strings ready for writing out.
+     * @return String    Stream of strings ready for writing out.
      */
-    public List<String> list(List<MavenProject> projects) {
+    public Stream<String> list(List<MavenProject> projects) {
         getLog().debug("Begin of projects:");
-        Comparator<MavenProject> comparator = MojoUtilities.getMavenProjectComparator(this.sortOrder);
-        List<String> rows = new ArrayList<>();
-        projects.stream().filter(this::isIncluded).sorted(comparator).forEach(mavenProject -> rows.add(formatProject(mavenProject)));
-        getLog().debug(":End of projects");
-        return rows;
+        SortOrder order = SortOrder.of(this.sortOrder);
+        Stream<MavenProject> included = order.isGraphOrder()
+                ? getReactorOrder().sort(projects.stream().filter(this::isIncluded), order)
+                : MojoUtilities.selectProjects(projects, this::isIncluded, order);
+        return resolvedOutputFormat.rows(included, getProjectFormat()).onClose(() -> getLog().debug(":End of projects"));
     }
 
     /**
-     * <p>Replace a String with another String inside a larger String,
-     * for the first <code>max</code> values of the search String.</p>
-     *
-     * <p>A <code>null</code> reference passed to this method is a no-op.</p>
-     *
-     * <p>Copied and modified from org.apache.maven.shared.utils.StringUtils.</p>
+     * Format a single project to a string.
+     * Replaces the placeholders in print format, see {@link #setPrintFormat(String)}.
      *
-     * @param text text to search and replace in
-     * @param repl String to search for
-     * @param with String to replace with
-     * @return the text with any replacements processed
-     */
-    static String replace(String text, String repl, String with) {
-        if ((text == null) || (repl == null) || (with == null) || repl.isEmpty()) {
-            return text;
-        }
+     * @param mavenProject MavenProject
+     * @return String formatted project
+     * @see ProjectFormat
+     */
+    public String formatProject(MavenProject mavenProject) {
+        return getProjectFormat().format(mavenProject);
+    }
 
-        StringBuilder buf = new StringBuilder(text.length());
-        int start = 0;
-        int end;
-        while ((end = text.indexOf(repl, start)) != -1) {
-            buf.append(text, start, end).append(with);
-            start = end + repl.length();
+    /**
+     * The compiled print format, compiled now if parameters were not validated.
+     *
+     * @return the print format
+     */
+    private ProjectFormat getProjectFormat() {
+        if (this.projectFormat == null) {
+            this.projectFormat = ProjectFormat.compile(this.printFormat);
         }
-        buf.append(text, start, text.length());
-        return buf.toString();
+        return this.projectFormat;
     }
 
     /**
-     * Format a single project to a string.
-     * Replaces {groupId}, {artifactId}, {name}, {description}, {version}, {absPath}, {packaging}.
+     * Build order and waves of the projects.
      *
-     * @param mavenProject MavenProject
-     * @return String formatted project
+     * @return the order, null if there is no project dependency graph
      */
-    public String formatProject(MavenProject mavenProject) {
-        String s = this.printFormat;
-        return replace(
-                replace(
-                        replace(
-                                replace(
-                                        replace(
-                                                replace(
-                                                        replace(s, "{groupId}", mavenProject.getGroupId()),
-                                                        "{artifactId}", mavenProject.getArtifactId()
-                                                ), "{name}", mavenProject.getName()
-                                        ), "{description}", mavenProject.getDescription()
-                                ), "{version}", mavenProject.getVersion()
-                        ), "{absPath}", mavenProject.getBasedir().getAbsolutePath()
-                ), "{packaging}", mavenProject.getPackaging()
-        );
+    private ReactorOrder getReactorOrder() {
+        if (this.reactorOrder == null && this.mavenSession != null && this.mavenSession.getProjectDependencyGraph() != null) {
+            this.reactorOrder = ReactorOrder.of(this.mavenSession.getProjectDependencyGraph());
+        }
+        return this.reactorOrder;
     }
 
     /**
@@ -182,8 +255,11 @@ public class ListMojo extends BaseMojo {
      * @return true if included, false if excluded
      */
     public boolean isIncluded(MavenProject mavenProject) {
-        boolean r = MojoUtilities.isIncluded(this.includes, this.excludes, mavenProject);
-        getLog().debug(String.format("isIncluded(%s:%s:%s:%s): %b", mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getVersion(), mavenProject.getPackaging(), r));
+        ProjectMatcher matcher = this.projectMatcher != null ? this.projectMatcher : ProjectMatcher.compile(this.includes, this.excludes);
+        boolean r = matcher.isIncluded(mavenProject);
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(String.format("isIncluded(%s:%s:%s:%s): %b", mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getVersion(), mavenProject.getPackaging(), r));
+        }
         return r;
     }
 
@@ -207,6 +283,36 @@ public class ListMojo extends BaseMojo {
         final List<MavenProject> projects = mavenSession.getProjects();
 
         printOut(this.list(projects));
+
+        if (this.indexFile != null) {
+            writeIndex(projects);
+        }
+    }
+
+    /**
+     * Write the index file of all projects, unless it is already up to date.
+     *
+     * @param projects All projects in the build
+     * @throws MojoExecutionException if the index cannot be written
+     */
+    void writeIndex(List<MavenProject> projects) throws MojoExecutionException {
+        ProjectIndex index = ProjectIndex.of(projects);
+        if (this.indexFile.isFile()) {
+            try {
+                if (index.getKey().equals(ProjectIndex.read(this.indexFile.toPath()).getKey())) {
+                    getLog().debug(String.format("Project index '%s' is up to date", this.indexFile));
+                    return;
+                }
+            } catch (IOException e) {
+                getLog().debug(String.format("Cannot read project index '%s', writing it again. Error: %s", this.indexFile, e.getMessage()));
+            }
+        }
+        try {
+            index.write(this.indexFile.toPath());
+        } catch (IOException e) {
+            throw new MojoExecutionException(String.format("Cannot write project index '%s'. Error: %s", this.indexFile, e.getMessage()), e);
+        }
+        getLog().debug(String.format("Project index '%s' written", this.indexFile));
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.github.mikkoi.projects_maven_plugin;
 
+import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.project.MavenProject;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Utility methods for Mojos.
@@ -23,36 +26,101 @@ public final class MojoUtilities {
      */
     public static final String REPLACE_ME_STRING = "DEFAULT_TO_BE_REPLACED";
     /**
-     * Create a comparator which compares Maven project groupId and artifactId
-     * for alphabetical listing.
+     * Create a comparator for anything which has a project id,
+     * comparing groupId, artifactId and packaging in this order.
+     * Every goal sorts alphabetically with this order.
      *
-     * @param sortOrder "random" / "alphabetic"
+     * @param groupId    Function to get groupId
+     * @param artifactId Function to get artifactId
+     * @param packaging  Function to get packaging
+     * @param <T>        Type of compared items
      * @return the comparator
      */
+    public static <T> Comparator<T> projectIdComparator(Function<? super T, String> groupId,
+                                                       Function<? super T, String> artifactId,
+                                                       Function<? super T, String> packaging) {
+        return Comparator.<T, String>comparing(groupId)
+                .thenComparing(artifactId)
+                .thenComparing(packaging);
+    }
+
+    /**
+     * Create a comparator which compares Maven project groupId, artifactId and packaging
+     * for alphabetical listing.
+     *
+     * @param sortOrder "maven" / "alphabetic"
+     * @return the comparator, for "maven" one which keeps the order
+     */
     public static Comparator<MavenProject> getMavenProjectComparator(String sortOrder) {
-        Comparator<MavenProject> comparator;
         if ("maven".equals(sortOrder)) {
-            comparator = (o1, o2) -> 0;
-        } else {
-            comparator = (o1, o2) -> {
-                String o1GroupId = o1.getGroupId();
-                String o2groupId = o2.getGroupId();
-                String o1artifactId = o1.getArtifactId();
-                String o2artifactId = o2.getArtifactId();
-                String o1Packaging = o1.getPackaging();
-                String o2Packaging = o2.getPackaging();
-                int r1 = o1GroupId.compareTo(o2groupId);
-                if (r1 != 0) {
-                    return r1;
-                }
-                int r2 = o1artifactId.compareTo(o2artifactId);
-                if (r2 != 0) {
-                    return r2;
-                }
-                return o1Packaging.compareTo(o2Packaging);
-            };
+            return (o1, o2) -> 0;
+        }
+        return projectIdComparator(MavenProject::getGroupId, MavenProject::getArtifactId, MavenProject::getPackaging);
+    }
+
+    /**
+     * Select projects: filter with the compiled includes and excludes and sort.
+     * All goals select their projects with this method.
+     * The stream is lazy and, in Maven order, not sorted at all.
+     *
+     * @param projects  Projects in Maven order
+     * @param included  Filter, usually {@link ProjectMatcher#isIncluded(MavenProject)}
+     * @param sortOrder Sort order
+     * @return the selected projects
+     */
+    public static Stream<MavenProject> selectProjects(Collection<MavenProject> projects, Predicate<MavenProject> included,
+                                                      SortOrder sortOrder) {
+        return selectProjects(projects, included, sortOrder, null);
+    }
+
+    /**
+     * Select projects: filter with the compiled includes and excludes and sort,
+     * also in the sort orders which use the project dependency graph.
+     *
+     * @param projects  Projects in Maven order
+     * @param included  Filter, usually {@link ProjectMatcher#isIncluded(MavenProject)}
+     * @param sortOrder Sort order
+     * @param graph     Project dependency graph of the build, only needed if {@link SortOrder#isGraphOrder()}
+     * @return the selected projects
+     * @throws IllegalArgumentException if the sort order needs the graph and there is none
+     */
+    public static Stream<MavenProject> selectProjects(Collection<MavenProject> projects, Predicate<MavenProject> included,
+                                                      SortOrder sortOrder, ProjectDependencyGraph graph) {
+        Stream<MavenProject> selected = projects.stream().filter(included);
+        if (sortOrder.isGraphOrder()) {
+            if (graph == null) {
+                throw new IllegalArgumentException(String.format("Sort order '%s' needs the project dependency graph", sortOrder));
+            }
+            return ReactorOrder.of(graph).sort(selected, sortOrder);
         }
-        return comparator;
+        return sortOrder.sort(selected, MojoUtilities::getSortKey);
+    }
+
+    /**
+     * Sort key of a project for alphabetical order.
+     * Comparing the keys as strings gives the same order as
+     * {@link #projectIdComparator(Function, Function, Function)}:
+     * the fields are separated with the character 0, which is smaller than any
+     * character in an id, so a shorter field always comes first.
+     *
+     * @param groupId    GroupId
+     * @param artifactId ArtifactId
+     * @param packaging  Packaging
+     * @return the key
+     */
+    public static String getSortKey(String groupId, String artifactId, String packaging) {
+        return new StringBuilder(groupId.length() + artifactId.length() + packaging.length() + 2)
+                .append(groupId).append('\0').append(artifactId).append('\0').append(packaging).toString();
+    }
+
+    /**
+     * Sort key of a project for alphabetical order.
+     *
+     * @param mavenProject MavenProject
+     * @return the key, see {@link #getSortKey(String, String, String)}
+     */
+    public static String getSortKey(MavenProject mavenProject) {
+        return getSortKey(mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getPackaging());
     }
 
     /**
@@ -86,17 +154,28 @@ public final class MojoUtilities {
      * If includes is empty, then all projects are included.
      * If excludes is empty, then no projects are excluded.
      *
+     * <p>
+     * This method compiles the patterns on every call.
+     * When checking many projects, compile the patterns once
+     * with {@link ProjectMatcher#compile(Collection, Collection)} instead.
+     *
      * @param includes      List of strings (project ids) to include
      * @param excludes      List of strings (project ids) to exclude
      * @param mavenProject MavenProject to check
      * @return true if the project is included
      */
     public static boolean isIncluded(Collection<String> includes, Collection<String> excludes, MavenProject mavenProject) {
-        String projectId = String.format("%s:%s:%s", mavenProject.getGroupId(), mavenProject.getArtifactId(), mavenProject.getPackaging());
+        return ProjectMatcher.compile(includes, excludes).isIncluded(mavenProject);
+    }
 
-        // Match from the end of the id, artifactId alone is enough.
-        Predicate<String> predicateForProjectId = s -> projectId.matches(convertStringForMatching(s));
-        return includes.stream().anyMatch(predicateForProjectId) && excludes.stream().noneMatch(predicateForProjectId);
+    /**
+     * Project id used for matching: groupId:artifactId:packaging.
+     *
+     * @param mavenProject MavenProject
+     * @return the project id
+     */
+    public static String getProjectId(MavenProject mavenProject) {
+        return mavenProject.getGroupId() + ':' + mavenProject.getArtifactId() + ':' + mavenProject.getPackaging();
     }
 
 }
@@ -0,0 +1,248 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Output format of goal list.
+ * <p>
+ * In the structured formats every project is one record.
+ * The fields of the record are the placeholders used in the print format,
+ * e.g. the default print format gives the fields groupId, artifactId and packaging.
+ * Literal text in the print format is not used.
+ * <p>
+ * The records are written directly as text, one row at a time,
+ * without building the whole document in memory.
+ */
+public enum OutputFormat {
+
+    /**
+     * The print format as it is.
+     */
+    TEXT {
+        @Override
+        Stream<String> rows(Stream<MavenProject> projects, ProjectFormat format) {
+            return projects.map(format::format);
+        }
+    },
+
+    /**
+     * One JSON array with an object for every project.
+     * Every object is on its own row.
+     */
+    JSON {
+        @Override
+        Stream<String> rows(Stream<MavenProject> projects, ProjectFormat format) {
+            Iterator<String> objects = NDJSON.rows(projects, format).iterator();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                    new JsonArrayIterator(objects), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(projects::close);
+        }
+    },
+
+    /**
+     * Newline delimited JSON: one JSON object on every row.
+     */
+    NDJSON {
+        @Override
+        Stream<String> rows(Stream<MavenProject> projects, ProjectFormat format) {
+            final String[] names = format.getFieldNames().toArray(new String[0]);
+            final StringBuilder sb = new StringBuilder();
+            return projects.map(project -> {
+                String[] values = format.values(project);
+                sb.setLength(0);
+                sb.append('{');
+                for (int i = 0; i < names.length; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    appendJsonString(sb, names[i]);
+                    sb.append(':');
+                    if (values[i] == null) {
+                        sb.append("null");
+                    } else {
+                        appendJsonString(sb, values[i]);
+                    }
+                }
+                return sb.append('}').toString();
+            });
+        }
+    },
+
+    /**
+     * Comma separated values as in RFC 4180.
+     * The first row contains the field names.
+     * A field without value is empty.
+     */
+    CSV {
+        @Override
+        Stream<String> rows(Stream<MavenProject> projects, ProjectFormat format) {
+            final StringBuilder sb = new StringBuilder();
+            List<String> names = format.getFieldNames();
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendCsvField(sb, names.get(i));
+            }
+            String header = sb.toString();
+            Stream<String> records = projects.map(project -> {
+                String[] values = format.values(project);
+                sb.setLength(0);
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    if (values[i] != null) {
+                        appendCsvField(sb, values[i]);
+                    }
+                }
+                return sb.toString();
+            });
+            return Stream.concat(Stream.of(header), records);
+        }
+    };
+
+    /**
+     * Convert projects to output rows.
+     * The returned stream is lazy, and closing it closes the stream of projects.
+     *
+     * @param projects Projects in output order
+     * @param format   Compiled print format
+     * @return the rows
+     */
+    abstract Stream<String> rows(Stream<MavenProject> projects, ProjectFormat format);
+
+    /**
+     * Find the output format by name, case insensitively.
+     *
+     * @param name Name, e.g. "json"
+     * @return the output format
+     * @throws IllegalArgumentException if there is no such format
+     */
+    public static OutputFormat of(String name) {
+        for (OutputFormat outputFormat : values()) {
+            if (outputFormat.name().equalsIgnoreCase(name)) {
+                return outputFormat;
+            }
+        }
+        StringBuilder valid = new StringBuilder();
+        for (OutputFormat outputFormat : values()) {
+            valid.append(valid.length() == 0 ? "" : ", ").append('\'').append(outputFormat).append('\'');
+        }
+        throw new IllegalArgumentException(String.format("Unknown output format '%s'. Allowed values: %s.", name, valid));
+    }
+
+    /**
+     * Append a string as a quoted JSON string.
+     *
+     * @param sb    Buffer
+     * @param value String
+     */
+    static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Append a CSV field, quoted only if it contains a comma, a quote or a line break.
+     *
+     * @param sb    Buffer
+     * @param value Field value
+     */
+    static void appendCsvField(StringBuilder sb, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Wraps JSON objects into an array.
+     * Looks ahead one object to know if a comma is needed after the current one.
+     */
+    private static final class JsonArrayIterator implements Iterator<String> {
+        private final Iterator<String> objects;
+        private boolean started;
+        private boolean finished;
+
+        JsonArrayIterator(Iterator<String> objects) {
+            this.objects = objects;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !finished;
+        }
+
+        @Override
+        public String next() {
+            if (finished) {
+                throw new NoSuchElementException();
+            }
+            if (!started) {
+                started = true;
+                return "[";
+            }
+            if (!objects.hasNext()) {
+                finished = true;
+                return "]";
+            }
+            String object = objects.next();
+            return objects.hasNext() ? object + ',' : object;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination for the output rows of a goal.
+ * <p>
+ * Rows written to STDOUT or to a file go through one large buffer
+ * which is flushed only when it is full and when the sink is closed.
+ * The sink must always be closed, otherwise the last rows are lost.
+ */
+abstract class OutputSink implements Closeable {
+
+    /**
+     * Size of the write buffer in characters.
+     */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Write one row. A line separator is added after it.
+     *
+     * @param row Row to write
+     * @throws UncheckedIOException if writing fails
+     */
+    abstract void write(String row);
+
+    /**
+     * Write the rows to the log with level INFO.
+     *
+     * @param log Maven log
+     * @return the sink
+     */
+    static OutputSink log(Log log) {
+        return new LogSink(log);
+    }
+
+    /**
+     * Write the rows to STDOUT.
+     * Closing the sink flushes STDOUT but does not close it.
+     *
+     * @return the sink
+     */
+    static OutputSink stdout() {
+        return new WriterSink(new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), BUFFER_SIZE), false);
+    }
+
+    /**
+     * Write the rows to a file in UTF-8 through a file channel.
+     * The parent directories are created and an existing file is overwritten.
+     *
+     * @param path File path
+     * @return the sink
+     * @throws IOException if the file cannot be opened
+     */
+    static OutputSink file(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+        return new WriterSink(new BufferedWriter(writer, BUFFER_SIZE), true);
+    }
+
+    /**
+     * Rows to log.
+     */
+    private static final class LogSink extends OutputSink {
+        private final Log log;
+
+        LogSink(Log log) {
+            this.log = log;
+        }
+
+        @Override
+        void write(String row) {
+            log.info(row);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+    }
+
+    /**
+     * Rows to a buffered writer.
+     */
+    private static final class WriterSink extends OutputSink {
+        private final BufferedWriter writer;
+        private final boolean closeWriter;
+
+        WriterSink(BufferedWriter writer, boolean closeWriter) {
+            this.writer = writer;
+            this.closeWriter = closeWriter;
+        }
+
+        @Override
+        void write(String row) {
+            try {
+                writer.write(row);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closeWriter) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        }
+    }
+}
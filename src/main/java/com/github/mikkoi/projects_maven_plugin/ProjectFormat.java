@@ -0,0 +1,366 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Compiled print format for projects.
+ * <p>
+ * The format is parsed once into literal segments and field accessors.
+ * A placeholder is a name in curly braces, e.g. {artifactId}.
+ * Other text, including curly braces which do not surround a name,
+ * is copied as it is.
+ * Unknown placeholders are rejected when compiling.
+ * <p>
+ * Only the fields which the format refers to are computed,
+ * and each of them only once per project, even if it is used several times.
+ * The set of fields can be extended, see {@link #fields(File)}.
+ * <p>
+ * If a field has no value, the placeholder itself is printed.
+ * <p>
+ * Formatting reuses one buffer, so an instance must not be shared between threads.
+ */
+public final class ProjectFormat {
+
+    /**
+     * Prefix of the parameterized placeholder for project properties,
+     * e.g. {property:maven.compiler.release}.
+     */
+    static final String PROPERTY_PREFIX = "property:";
+
+    private final String format;
+    /**
+     * Literal text before each placeholder, and after the last one.
+     * Always one more than there are placeholders.
+     */
+    private final String[] literals;
+    /**
+     * For each placeholder, the index of its field in {@link #accessors}.
+     */
+    private final int[] fieldIndexes;
+    /**
+     * Placeholder names of the fields, used when a field has no value.
+     */
+    private final String[] fieldNames;
+    /**
+     * Accessors of the distinct fields used in the format.
+     */
+    private final List<Function<MavenProject, String>> accessors;
+    private final String[] values;
+    private final boolean[] computed;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private ProjectFormat(String format, List<String> literals, List<String> placeholders,
+                          Map<String, Function<MavenProject, String>> fields) {
+        this.format = format;
+        this.literals = literals.toArray(new String[0]);
+        this.fieldIndexes = new int[placeholders.size()];
+        List<String> names = new ArrayList<>();
+        this.accessors = new ArrayList<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            String name = placeholders.get(i);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+                this.accessors.add(fields == null ? null : accessor(name, fields));
+            }
+            this.fieldIndexes[i] = index;
+        }
+        this.fieldNames = names.toArray(new String[0]);
+        this.values = new String[names.size()];
+        this.computed = new boolean[names.size()];
+    }
+
+    /**
+     * Create the standard fields.
+     * The map is a new modifiable copy:
+     * callers can add their own fields to it before compiling a format.
+     *
+     * @param rootDirectory Directory which {relPath} is relative to,
+     *                      if null, the current working directory
+     * @return field accessors by placeholder name
+     */
+    public static Map<String, Function<MavenProject, String>> fields(File rootDirectory) {
+        final Path root = (rootDirectory == null ? new File("") : rootDirectory).getAbsoluteFile().toPath();
+        Map<String, Function<MavenProject, String>> fields = new LinkedHashMap<>();
+        fields.put("groupId", MavenProject::getGroupId);
+        fields.put("artifactId", MavenProject::getArtifactId);
+        fields.put("name", MavenProject::getName);
+        fields.put("description", MavenProject::getDescription);
+        fields.put("version", MavenProject::getVersion);
+        fields.put("absPath", project -> {
+            File basedir = project.getBasedir();
+            return basedir == null ? null : basedir.getAbsolutePath();
+        });
+        fields.put("packaging", MavenProject::getPackaging);
+        fields.put("relPath", project -> {
+            File basedir = project.getBasedir();
+            if (basedir == null) {
+                return null;
+            }
+            String relPath = root.relativize(basedir.getAbsoluteFile().toPath()).toString();
+            return relPath.isEmpty() ? "." : relPath;
+        });
+        fields.put("pomFile", project -> {
+            File file = project.getFile();
+            return file == null ? null : file.getAbsolutePath();
+        });
+        fields.put("parent", project -> {
+            Parent parent = project.getModel().getParent();
+            return parent == null ? "" : parent.getGroupId() + ':' + parent.getArtifactId() + ':' + parent.getVersion();
+        });
+        fields.put("depCount", project -> Integer.toString(project.getDependencies().size()));
+        fields.put("modules", project -> String.join(",", project.getModules()));
+        return fields;
+    }
+
+    /**
+     * Compile a print format with the standard fields.
+     * {relPath} is relative to the current working directory.
+     *
+     * @param format Format, e.g. "{groupId}:{artifactId}:{packaging}"
+     * @return the compiled format
+     * @throws IllegalArgumentException if the format contains an unknown placeholder
+     */
+    public static ProjectFormat compile(String format) {
+        return compile(format, fields(null));
+    }
+
+    /**
+     * Compile a print format.
+     * Besides the given fields, {property:name} is always known.
+     *
+     * @param format Format, e.g. "{groupId}:{artifactId}:{packaging}"
+     * @param fields Field accessors by placeholder name
+     * @return the compiled format
+     * @throws IllegalArgumentException if the format contains an unknown placeholder
+     */
+    public static ProjectFormat compile(String format, Map<String, Function<MavenProject, String>> fields) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        parse(format, name -> accessor(name, fields) != null, () -> knownPlaceholders(fields), literals, placeholders);
+        return new ProjectFormat(format, literals, placeholders, fields);
+    }
+
+    /**
+     * Compile a print format whose values are computed elsewhere and given to {@link #format(String[])},
+     * e.g. read from a {@link ProjectIndex}. The format has no field accessors,
+     * so it needs no Maven classes, and it cannot format a {@link MavenProject}.
+     *
+     * @param format Format, e.g. "{groupId}:{artifactId}"
+     * @param names  Known placeholder names
+     * @return the compiled format
+     * @throws IllegalArgumentException if the format contains an unknown placeholder
+     */
+    static ProjectFormat compileForValues(String format, Collection<String> names) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        parse(format, names::contains, () -> names.stream().map(name -> '{' + name + '}').collect(Collectors.joining(", ")),
+                literals, placeholders);
+        return new ProjectFormat(format, literals, placeholders, null);
+    }
+
+    /**
+     * Split a format into literal segments and placeholder names.
+     *
+     * @param format       Format
+     * @param isKnown      Is a placeholder name known
+     * @param known        Known placeholders for the error message
+     * @param literals     Literal text before each placeholder, and after the last one
+     * @param placeholders Placeholder names
+     * @throws IllegalArgumentException if the format contains an unknown placeholder
+     */
+    private static void parse(String format, Predicate<String> isKnown, Supplier<String> known,
+                              List<String> literals, List<String> placeholders) {
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < format.length()) {
+            int end = placeholderEnd(format, i);
+            if (end < 0) {
+                literal.append(format.charAt(i));
+                i++;
+                continue;
+            }
+            String name = format.substring(i + 1, end);
+            if (!isKnown.test(name)) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown placeholder '{%s}' in print format '%s'. Known placeholders: %s",
+                        name, format, known.get()));
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            placeholders.add(name);
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+    }
+
+    /**
+     * Find the accessor for a placeholder name.
+     *
+     * @return the accessor, or null if the name is unknown
+     */
+    private static Function<MavenProject, String> accessor(String name, Map<String, Function<MavenProject, String>> fields) {
+        Function<MavenProject, String> accessor = fields.get(name);
+        if (accessor == null && name.startsWith(PROPERTY_PREFIX) && name.length() > PROPERTY_PREFIX.length()) {
+            final String key = name.substring(PROPERTY_PREFIX.length());
+            accessor = project -> project.getProperties().getProperty(key);
+        }
+        return accessor;
+    }
+
+    /**
+     * Find a placeholder starting at the given position.
+     * A placeholder is '{', a letter, then letters, digits or any of ".:_-", and '}'.
+     *
+     * @return the position of the closing brace, or -1 if there is no placeholder
+     */
+    private static int placeholderEnd(String format, int start) {
+        if (format.charAt(start) != '{' || start + 1 >= format.length()
+                || !Character.isLetter(format.charAt(start + 1))) {
+            return -1;
+        }
+        for (int i = start + 2; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (c == '}') {
+                return i;
+            }
+            if (!Character.isLetterOrDigit(c) && ".:_-".indexOf(c) < 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Known placeholders for messages.
+     *
+     * @return the placeholders, e.g. "{groupId}, {artifactId}"
+     */
+    static String knownPlaceholders(Map<String, Function<MavenProject, String>> fields) {
+        StringBuilder sb = new StringBuilder();
+        for (String name : fields.keySet()) {
+            sb.append('{').append(name).append("}, ");
+        }
+        sb.append('{').append(PROPERTY_PREFIX).append("<name>}");
+        return sb.toString();
+    }
+
+    /**
+     * Format a project.
+     *
+     * @param mavenProject MavenProject
+     * @return the formatted string
+     */
+    public String format(MavenProject mavenProject) {
+        buffer.setLength(0);
+        appendTo(buffer, mavenProject);
+        return buffer.toString();
+    }
+
+    /**
+     * Format a project into a buffer.
+     *
+     * @param sb           Buffer to append to
+     * @param mavenProject MavenProject
+     */
+    public void appendTo(StringBuilder sb, MavenProject mavenProject) {
+        Arrays.fill(computed, false);
+        for (int i = 0; i < fieldIndexes.length; i++) {
+            sb.append(literals[i]);
+            String value = value(fieldIndexes[i], mavenProject);
+            if (value == null) {
+                sb.append('{').append(fieldNames[fieldIndexes[i]]).append('}');
+            } else {
+                sb.append(value);
+            }
+        }
+        sb.append(literals[fieldIndexes.length]);
+    }
+
+    /**
+     * Format with field values which are already known, e.g. read from a {@link ProjectIndex}.
+     *
+     * @param fieldValues Values in the order of {@link #getFieldNames()}, null if a field has no value
+     * @return the formatted string
+     */
+    public String format(String[] fieldValues) {
+        buffer.setLength(0);
+        for (int i = 0; i < fieldIndexes.length; i++) {
+            buffer.append(literals[i]);
+            String value = fieldValues[fieldIndexes[i]];
+            if (value == null) {
+                buffer.append('{').append(fieldNames[fieldIndexes[i]]).append('}');
+            } else {
+                buffer.append(value);
+            }
+        }
+        buffer.append(literals[fieldIndexes.length]);
+        return buffer.toString();
+    }
+
+    /**
+     * Names of the distinct fields used in the format, in order of first use.
+     * These are the columns of structured output, see {@link OutputFormat}.
+     *
+     * @return the field names, e.g. ["groupId", "artifactId"]
+     */
+    public List<String> getFieldNames() {
+        return Collections.unmodifiableList(Arrays.asList(fieldNames));
+    }
+
+    /**
+     * Compute the fields of a project, in the order of {@link #getFieldNames()}.
+     * A field without value is null.
+     *
+     * @param mavenProject MavenProject
+     * @return the field values
+     */
+    public String[] values(MavenProject mavenProject) {
+        String[] result = new String[fieldNames.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = accessors.get(i).apply(mavenProject);
+        }
+        return result;
+    }
+
+    /**
+     * Compute a field at most once per project.
+     */
+    private String value(int field, MavenProject mavenProject) {
+        if (!computed[field]) {
+            values[field] = accessors.get(field).apply(mavenProject);
+            computed[field] = true;
+        }
+        return values[field];
+    }
+
+    /**
+     * The format string as given.
+     *
+     * @return the format
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public String toString() {
+        return format;
+    }
+}
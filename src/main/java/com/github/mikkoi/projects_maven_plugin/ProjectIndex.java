@@ -0,0 +1,733 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the projects in a build, stored in a file.
+ * <p>
+ * The index holds the records goal list needs for every project,
+ * and the path and modification time of every POM file.
+ * The key of the index is a hash of all POM paths and modification times,
+ * so it changes whenever any POM is changed, added or removed.
+ * <p>
+ * The index can be read without Maven with {@link #main(String[])},
+ * which lists and filters the projects in milliseconds.
+ * Before answering, it checks the modification time of every POM in the index.
+ * If any of them has changed, its entry is stale and only that POM is read again,
+ * see {@link #refresh()}. The other entries are kept.
+ * When a change cannot be applied to one entry alone, for example a module is
+ * added or removed, or the coordinates of a project change,
+ * the index must be written again by running goal list.
+ * <p>
+ * File format, UTF-8, one project per row in Maven build order:
+ * <pre>
+ * # projects-maven-plugin index 2
+ * # key &lt;hash&gt;
+ * pomFile TAB lastModified TAB groupId TAB artifactId TAB version TAB packaging TAB basedir TAB name TAB description
+ *     TAB parent TAB modules
+ * </pre>
+ * Backslash, tab and line breaks in values are escaped with backslash,
+ * a missing value is written as \N.
+ */
+public final class ProjectIndex {
+
+    /**
+     * First row of an index file.
+     */
+    static final String HEADER = "# projects-maven-plugin index 2";
+
+    /**
+     * Prefix of the second row of an index file.
+     */
+    static final String KEY_PREFIX = "# key ";
+
+    /**
+     * Marker for a missing value.
+     */
+    private static final String NULL_VALUE = "\\N";
+
+    /**
+     * Fields of an entry after pomFile and lastModified,
+     * these are also the placeholders known by {@link #compileFormat(String)}.
+     */
+    static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "groupId", "artifactId", "version", "packaging", "absPath", "name", "description", "parent", "modules"));
+
+    /**
+     * Exit code when the index has stale entries.
+     */
+    static final int EXIT_STALE = 2;
+
+    private final String key;
+    private final List<Entry> entries;
+
+    private ProjectIndex(String key, List<Entry> entries) {
+        this.key = key;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Create the index of projects.
+     *
+     * @param projects Projects in Maven build order
+     * @return the index
+     */
+    public static ProjectIndex of(List<MavenProject> projects) {
+        List<Entry> entries = new ArrayList<>(projects.size());
+        for (MavenProject project : projects) {
+            File pomFile = project.getFile();
+            File basedir = project.getBasedir();
+            String pomPath = pomFile == null ? null : pomFile.getAbsolutePath();
+            Parent parent = project.getModel().getParent();
+            entries.add(new Entry(pomPath, pomPath == null ? 0L : pomFile.lastModified(), new String[] {
+                    project.getGroupId(), project.getArtifactId(), project.getVersion(), project.getPackaging(),
+                    basedir == null ? null : basedir.getAbsolutePath(), project.getName(), project.getDescription(),
+                    parent == null ? "" : parent.getGroupId() + ':' + parent.getArtifactId() + ':' + parent.getVersion(),
+                    String.join(",", project.getModules())}));
+        }
+        return new ProjectIndex(computeKey(entries), entries);
+    }
+
+    /**
+     * Read an index file.
+     *
+     * @param path Index file
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an index file
+     */
+    public static ProjectIndex read(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String keyRow = reader.readLine();
+            if (!HEADER.equals(header) || keyRow == null || !keyRow.startsWith(KEY_PREFIX)) {
+                throw new IOException(String.format("File '%s' is not a project index", path));
+            }
+            List<Entry> entries = new ArrayList<>();
+            String row;
+            while ((row = reader.readLine()) != null) {
+                String[] columns = row.split("\t", -1);
+                if (columns.length != FIELDS.size() + 2) {
+                    throw new IOException(String.format("Invalid row in project index '%s': %s", path, row));
+                }
+                String[] values = new String[FIELDS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = unescape(columns[i + 2]);
+                }
+                try {
+                    entries.add(new Entry(unescape(columns[0]), Long.parseLong(columns[1]), values));
+                } catch (NumberFormatException e) {
+                    throw new IOException(String.format("Invalid row in project index '%s': %s", path, row), e);
+                }
+            }
+            return new ProjectIndex(keyRow.substring(KEY_PREFIX.length()), entries);
+        }
+    }
+
+    /**
+     * Write the index to a file.
+     * The file is first written beside the target and then moved over it,
+     * so readers never see a partly written index.
+     *
+     * @param path Index file
+     * @throws IOException if writing fails
+     */
+    public void write(Path path) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.write(KEY_PREFIX + key);
+                writer.newLine();
+                for (Entry entry : entries) {
+                    writer.write(escape(entry.pomFile));
+                    writer.write('\t');
+                    writer.write(Long.toString(entry.lastModified));
+                    for (String value : entry.values) {
+                        writer.write('\t');
+                        writer.write(escape(value));
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Find the entries whose POM file has been changed or removed
+     * after the index was written.
+     *
+     * @return the stale entries, empty if the index is up to date
+     */
+    public List<Entry> staleEntries() {
+        List<Entry> stale = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isStale()) {
+                stale.add(entry);
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Refresh the stale entries by reading their POM files again, and keep the other entries.
+     * <p>
+     * A POM is read without Maven, so its values are taken as they are written in it.
+     * The groupId and version may come from the parent element, the description from
+     * the parent project in the index, like Maven inherits them.
+     * When the description of a project changes, the projects which inherit it are refreshed, too.
+     * <p>
+     * The index cannot be refreshed one POM at a time, and an {@link IOException} is thrown,
+     * if a POM file is removed or cannot be read, if a value contains a property expression,
+     * if the groupId, artifactId, version, parent or modules of a project change,
+     * or if a description is inherited from a parent outside the build.
+     *
+     * @return the refreshed index, this index if no entry is stale
+     * @throws IOException if goal list must be run again to write the whole index
+     */
+    public ProjectIndex refresh() throws IOException {
+        List<Entry> refreshed = new ArrayList<>(entries);
+        Deque<Integer> queue = new ArrayDeque<>();
+        Set<Integer> queued = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).isStale()) {
+                queue.add(i);
+                queued.add(i);
+            }
+        }
+        if (queue.isEmpty()) {
+            return this;
+        }
+        while (!queue.isEmpty()) {
+            int i = queue.poll();
+            queued.remove(i);
+            Entry old = refreshed.get(i);
+            Entry entry = old.reread(refreshed);
+            refreshed.set(i, entry);
+            if (!Objects.equals(old.get("description"), entry.get("description"))) {
+                String coordinates = old.getCoordinates();
+                for (int j = 0; j < refreshed.size(); j++) {
+                    if (coordinates.equals(refreshed.get(j).get("parent")) && queued.add(j)) {
+                        queue.add(j);
+                    }
+                }
+            }
+        }
+        return new ProjectIndex(computeKey(refreshed), refreshed);
+    }
+
+    /**
+     * Hash of all POM paths and modification times.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Entries in Maven build order.
+     *
+     * @return unmodifiable list
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    private static String computeKey(List<Entry> entries) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Entry entry : entries) {
+            digest.update(String.valueOf(entry.pomFile).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\t');
+            digest.update(Long.toString(entry.lastModified).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compile a print format for the entries.
+     * The placeholders are those of goal list, but only the ones in {@link #FIELDS} are known,
+     * because the index has no other values.
+     *
+     * @param printFormat Format, e.g. "{groupId}:{artifactId}"
+     * @return the compiled format
+     * @throws IllegalArgumentException if the format contains an unknown placeholder
+     */
+    static ProjectFormat compileFormat(String printFormat) {
+        return ProjectFormat.compileForValues(printFormat, FIELDS);
+    }
+
+    /**
+     * Escape a value for a column.
+     *
+     * @param value Value, may be null
+     * @return the escaped value
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reverse {@link #escape(String)}.
+     *
+     * @param value Escaped value
+     * @return the value, may be null
+     */
+    static String unescape(String value) {
+        if (NULL_VALUE.equals(value)) {
+            return null;
+        }
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                i++;
+                char next = value.charAt(i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * List projects from an index file without Maven.
+     * <p>
+     * Usage: {@code java -cp projects-maven-plugin.jar com.github.mikkoi.projects_maven_plugin.ProjectIndex
+     * <indexFile> [--includes=a,b] [--excludes=c] [--sortOrder=maven|alphabetic] [--printFormat=format]}
+     * <p>
+     * The print format knows the placeholders {groupId}, {artifactId}, {version},
+     * {packaging}, {absPath}, {name} and {description}.
+     * Exits with code 2 and lists the stale POM files if the index is not up to date.
+     *
+     * @param args Arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Run the command line entry point.
+     *
+     * @param args Arguments, see {@link #main(String[])}
+     * @param out  Output for the projects
+     * @param err  Output for errors
+     * @return exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            err.println("Usage: ProjectIndex <indexFile> [--includes=a,b] [--excludes=c]"
+                    + " [--sortOrder=maven|alphabetic] [--printFormat=format]");
+            return 1;
+        }
+        List<String> includes = Collections.singletonList("*");
+        List<String> excludes = Collections.emptyList();
+        String sortOrder = "maven";
+        String printFormat = "{groupId}:{artifactId}:{packaging}";
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--includes=")) {
+                includes = splitList(arg.substring("--includes=".length()));
+            } else if (arg.startsWith("--excludes=")) {
+                excludes = splitList(arg.substring("--excludes=".length()));
+            } else if (arg.startsWith("--sortOrder=")) {
+                sortOrder = arg.substring("--sortOrder=".length());
+                try {
+                    if (SortOrder.of(sortOrder).isGraphOrder()) {
+                        throw new IllegalArgumentException(String.format(
+                                "Sort order '%s' needs the project dependency graph, use goal list instead.", sortOrder));
+                    }
+                } catch (IllegalArgumentException e) {
+                    err.println(e.getMessage());
+                    return 1;
+                }
+            } else if (arg.startsWith("--printFormat=")) {
+                printFormat = arg.substring("--printFormat=".length());
+            } else {
+                err.println("Unknown argument: " + arg);
+                return 1;
+            }
+        }
+
+        ProjectFormat format;
+        try {
+            format = compileFormat(printFormat);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 1;
+        }
+
+        ProjectIndex index;
+        try {
+            index = read(Paths.get(args[0]));
+        } catch (IOException e) {
+            err.println("Cannot read project index: " + e.getMessage());
+            return 1;
+        }
+        List<Entry> stale = index.staleEntries();
+        if (!stale.isEmpty()) {
+            try {
+                index = index.refresh();
+            } catch (IOException e) {
+                err.println("Project index is stale, run goal list again. " + e.getMessage() + " Changed POM files:");
+                for (Entry entry : stale) {
+                    err.println("    " + entry.getPomFile());
+                }
+                return EXIT_STALE;
+            }
+            try {
+                index.write(Paths.get(args[0]));
+            } catch (IOException e) {
+                err.println("Cannot write refreshed project index: " + e.getMessage());
+            }
+        }
+
+        ProjectMatcher matcher = ProjectMatcher.compileOrAll(includes, excludes);
+        List<Entry> selected = new ArrayList<>();
+        for (Entry entry : index.getEntries()) {
+            if (matcher.isIncluded(entry.getProjectId())) {
+                selected.add(entry);
+            }
+        }
+        List<Entry> sorted = SortOrder.of(sortOrder).sort(selected.stream(),
+                entry -> MojoUtilities.getSortKey(entry.get("groupId"), entry.get("artifactId"), entry.get("packaging")))
+                .collect(Collectors.toList());
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : sorted) {
+            sb.append(entry.format(format)).append(System.lineSeparator());
+        }
+        out.print(sb);
+        out.flush();
+        return 0;
+    }
+
+    private static List<String> splitList(String list) {
+        List<String> items = new ArrayList<>();
+        for (String item : list.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * One project in the index.
+     */
+    public static final class Entry {
+        private final String pomFile;
+        private final long lastModified;
+        /**
+         * Values in the order of {@link #FIELDS}.
+         */
+        private final String[] values;
+
+        Entry(String pomFile, long lastModified, String[] values) {
+            this.pomFile = pomFile;
+            this.lastModified = lastModified;
+            this.values = values;
+        }
+
+        /**
+         * Has the POM file been changed or removed after the index was written.
+         *
+         * @return true if stale
+         */
+        boolean isStale() {
+            return pomFile != null && new File(pomFile).lastModified() != lastModified;
+        }
+
+        /**
+         * Read the POM file of this entry again.
+         *
+         * @param entries Entries of the index, for the parent project
+         * @return the new entry
+         * @throws IOException if the entry cannot be refreshed alone, see {@link ProjectIndex#refresh()}
+         */
+        Entry reread(List<Entry> entries) throws IOException {
+            if (pomFile == null || !new File(pomFile).isFile()) {
+                throw new IOException(String.format("POM file '%s' was removed.", pomFile));
+            }
+            File file = new File(pomFile);
+            long modified = file.lastModified();
+            PomReader pom = PomReader.read(file.toPath());
+            String parent = pom.parentGroupId == null ? ""
+                    : pom.parentGroupId + ':' + pom.parentArtifactId + ':' + pom.parentVersion;
+            String[] newValues = values.clone();
+            newValues[0] = pom.groupId != null ? pom.groupId : pom.parentGroupId;
+            newValues[1] = pom.artifactId;
+            newValues[2] = pom.version != null ? pom.version : pom.parentVersion;
+            newValues[3] = pom.packaging != null ? pom.packaging : "jar";
+            newValues[5] = pom.name != null ? pom.name : pom.artifactId;
+            newValues[6] = pom.description;
+            newValues[7] = parent;
+            newValues[8] = String.join(",", pom.modules);
+            if (pom.description == null && !parent.isEmpty()) {
+                Entry parentEntry = null;
+                for (Entry candidate : entries) {
+                    if (parent.equals(candidate.getCoordinates())) {
+                        parentEntry = candidate;
+                    }
+                }
+                if (parentEntry == null) {
+                    throw new IOException(String.format(
+                            "The description of '%s' is inherited from a parent outside the build.", pomFile));
+                }
+                newValues[6] = parentEntry.get("description");
+            }
+            for (String field : Arrays.asList("groupId", "artifactId", "version", "parent", "modules")) {
+                int index = FIELDS.indexOf(field);
+                if (!Objects.equals(values[index], newValues[index])) {
+                    throw new IOException(String.format("The %s of '%s' has changed.", field, pomFile));
+                }
+            }
+            for (String value : newValues) {
+                if (value != null && value.contains("${")) {
+                    throw new IOException(String.format("POM file '%s' has a property expression: %s", pomFile, value));
+                }
+            }
+            return new Entry(pomFile, modified, newValues);
+        }
+
+        /**
+         * Coordinates of the project, in the form of the parent field of the index.
+         *
+         * @return groupId:artifactId:version
+         */
+        String getCoordinates() {
+            return values[0] + ':' + values[1] + ':' + values[2];
+        }
+
+        /**
+         * Absolute path of the POM file.
+         *
+         * @return the path, or null if not known
+         */
+        public String getPomFile() {
+            return pomFile;
+        }
+
+        /**
+         * Value of a field.
+         *
+         * @param field Field name, one of {@link #FIELDS}
+         * @return the value, or null
+         */
+        public String get(String field) {
+            int index = FIELDS.indexOf(field);
+            return index < 0 ? null : values[index];
+        }
+
+        /**
+         * Project id for matching, as in {@link MojoUtilities#getProjectId(MavenProject)}.
+         *
+         * @return groupId:artifactId:packaging
+         */
+        public String getProjectId() {
+            return values[0] + ':' + values[1] + ':' + values[3];
+        }
+
+        /**
+         * Format the entry. Placeholders without value are printed as they are, like in goal list.
+         *
+         * @param format Format compiled with {@link ProjectIndex#compileFormat(String)}
+         * @return the formatted string
+         */
+        public String format(ProjectFormat format) {
+            List<String> names = format.getFieldNames();
+            String[] fieldValues = new String[names.size()];
+            for (int i = 0; i < fieldValues.length; i++) {
+                fieldValues[i] = get(names.get(i));
+            }
+            return format.format(fieldValues);
+        }
+    }
+
+    /**
+     * The values of a POM file which the index holds, read without Maven.
+     * Only the elements directly under project and parent, and the modules, are read.
+     * Values are trimmed, a missing element is null.
+     */
+    static final class PomReader {
+        private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+        String groupId;
+        String artifactId;
+        String version;
+        String packaging;
+        String name;
+        String description;
+        String parentGroupId;
+        String parentArtifactId;
+        String parentVersion;
+        final List<String> modules = new ArrayList<>();
+
+        private static XMLInputFactory createInputFactory() {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return factory;
+        }
+
+        /**
+         * Read a POM file.
+         *
+         * @param path POM file
+         * @return the values
+         * @throws IOException if the file cannot be read or is not a POM
+         */
+        static PomReader read(Path path) throws IOException {
+            PomReader pom = new PomReader();
+            try (InputStream in = Files.newInputStream(path)) {
+                XMLStreamReader xml = INPUT_FACTORY.createXMLStreamReader(in);
+                try {
+                    List<String> elements = new ArrayList<>();
+                    while (xml.hasNext()) {
+                        int event = xml.next();
+                        if (event == XMLStreamConstants.START_ELEMENT) {
+                            elements.add(xml.getLocalName());
+                            String element = String.join("/", elements);
+                            if (pom.isValue(element)) {
+                                pom.set(element, xml.getElementText().trim());
+                                elements.remove(elements.size() - 1);
+                            }
+                        } else if (event == XMLStreamConstants.END_ELEMENT) {
+                            elements.remove(elements.size() - 1);
+                        }
+                    }
+                } finally {
+                    xml.close();
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException(String.format("Cannot read POM file '%s': %s", path, e.getMessage()), e);
+            }
+            if (pom.artifactId == null) {
+                throw new IOException(String.format("POM file '%s' has no artifactId.", path));
+            }
+            return pom;
+        }
+
+        private boolean isValue(String element) {
+            switch (element) {
+                case "project/groupId":
+                case "project/artifactId":
+                case "project/version":
+                case "project/packaging":
+                case "project/name":
+                case "project/description":
+                case "project/parent/groupId":
+                case "project/parent/artifactId":
+                case "project/parent/version":
+                case "project/modules/module":
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private void set(String element, String value) {
+            switch (element) {
+                case "project/groupId":
+                    groupId = value;
+                    break;
+                case "project/artifactId":
+                    artifactId = value;
+                    break;
+                case "project/version":
+                    version = value;
+                    break;
+                case "project/packaging":
+                    packaging = value;
+                    break;
+                case "project/name":
+                    name = value;
+                    break;
+                case "project/description":
+                    description = value;
+                    break;
+                case "project/parent/groupId":
+                    parentGroupId = value;
+                    break;
+                case "project/parent/artifactId":
+                    parentArtifactId = value;
+                    break;
+                case "project/parent/version":
+                    parentVersion = value;
+                    break;
+                default:
+                    modules.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Identity of a project in the build: groupId and artifactId.
+ * <p>
+ * A key is an immutable value, and its hash code is computed once.
+ * Use keys as map keys when projects and dependencies need to be
+ * matched against each other, instead of comparing strings in a loop.
+ */
+public final class ProjectKey {
+
+    private final String groupId;
+    private final String artifactId;
+    private final int hash;
+
+    private ProjectKey(String groupId, String artifactId) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.hash = 31 * groupId.hashCode() + artifactId.hashCode();
+    }
+
+    /**
+     * Get the key for groupId and artifactId.
+     *
+     * @param groupId    GroupId
+     * @param artifactId ArtifactId
+     * @return the key
+     */
+    public static ProjectKey of(String groupId, String artifactId) {
+        return new ProjectKey(String.valueOf(groupId), String.valueOf(artifactId));
+    }
+
+    /**
+     * Get the key of a project.
+     *
+     * @param project MavenProject
+     * @return the key
+     */
+    public static ProjectKey of(MavenProject project) {
+        return of(project.getGroupId(), project.getArtifactId());
+    }
+
+    /**
+     * Get the key of the project a dependency refers to.
+     *
+     * @param dependency Dependency
+     * @return the key
+     */
+    public static ProjectKey of(Dependency dependency) {
+        return of(dependency.getGroupId(), dependency.getArtifactId());
+    }
+
+    /**
+     * GroupId.
+     *
+     * @return the groupId
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * ArtifactId.
+     *
+     * @return the artifactId
+     */
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProjectKey)) {
+            return false;
+        }
+        ProjectKey other = (ProjectKey) o;
+        return hash == other.hash && groupId.equals(other.groupId) && artifactId.equals(other.artifactId);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * String form of the key.
+     *
+     * @return groupId:artifactId
+     */
+    @Override
+    public String toString() {
+        return groupId + ':' + artifactId;
+    }
+}
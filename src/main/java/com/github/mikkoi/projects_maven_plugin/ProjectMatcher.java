@@ -0,0 +1,328 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled includes and excludes patterns.
+ * <p>
+ * The patterns are converted with {@link MojoUtilities#convertStringForMatching(String)}
+ * and compiled only once, when the matcher is created.
+ * Patterns which contain only literal characters and wildcards (*)
+ * are matched with plain string comparisons, without regular expressions.
+ * When there are many such patterns, they are all merged
+ * into one {@link GlobAutomaton} instead, so a project id is classified
+ * in a single pass over it, however many patterns there are.
+ * <p>
+ * A matcher is immutable and can be shared between threads.
+ */
+public final class ProjectMatcher {
+
+    /**
+     * With this many or more wildcard patterns
+     * {@link Mode#AUTO} merges them into an automaton.
+     */
+    static final int AUTOMATON_THRESHOLD = 16;
+
+    /**
+     * How the patterns are matched.
+     */
+    enum Mode {
+        /** Every pattern is matched separately. */
+        LINEAR,
+        /** Wildcard patterns are merged into one automaton. */
+        AUTOMATON,
+        /** Choose by the number of patterns. */
+        AUTO
+    }
+
+    private final List<String> includePatterns;
+    private final List<String> excludePatterns;
+    private final List<Matcher> includes;
+    private final List<Matcher> excludes;
+    /**
+     * Automaton for the wildcard patterns, or null if not used.
+     * When used, {@link #includes} and {@link #excludes}
+     * contain only the other patterns.
+     */
+    private final GlobAutomaton automaton;
+
+    private ProjectMatcher(Collection<String> includePatterns, Collection<String> excludePatterns, Mode mode) {
+        this.includePatterns = Collections.unmodifiableList(new ArrayList<>(includePatterns));
+        this.excludePatterns = Collections.unmodifiableList(new ArrayList<>(excludePatterns));
+        this.includes = new ArrayList<>();
+        this.excludes = new ArrayList<>();
+        GlobAutomaton.Builder builder = new GlobAutomaton.Builder();
+        boolean useAutomaton = mode == Mode.AUTOMATON
+                || mode == Mode.AUTO && includePatterns.size() + excludePatterns.size() >= AUTOMATON_THRESHOLD;
+        compileAll(this.includePatterns, this.includes, useAutomaton ? builder : null, GlobAutomaton.INCLUDE);
+        compileAll(this.excludePatterns, this.excludes, useAutomaton ? builder : null, GlobAutomaton.EXCLUDE);
+        this.automaton = builder.size() > 0 ? builder.build() : null;
+    }
+
+    /**
+     * Compile includes and excludes.
+     * A null collection is treated as an empty one.
+     * If includes is empty, then no projects are included.
+     *
+     * @param includes List of strings (project ids) to include
+     * @param excludes List of strings (project ids) to exclude
+     * @return the matcher
+     */
+    public static ProjectMatcher compile(Collection<String> includes, Collection<String> excludes) {
+        return compile(includes, excludes, Mode.AUTO);
+    }
+
+    /**
+     * Compile includes and excludes for a goal where empty includes means all projects.
+     * A null or empty includes is treated as a single include "*".
+     *
+     * @param includes List of strings (project ids) to include
+     * @param excludes List of strings (project ids) to exclude
+     * @return the matcher
+     */
+    public static ProjectMatcher compileOrAll(Collection<String> includes, Collection<String> excludes) {
+        return compile(includes == null || includes.isEmpty() ? Collections.singletonList("*") : includes, excludes);
+    }
+
+    /**
+     * Compile includes and excludes using the given mode.
+     *
+     * @param includes List of strings (project ids) to include
+     * @param excludes List of strings (project ids) to exclude
+     * @param mode     Matching mode
+     * @return the matcher
+     */
+    static ProjectMatcher compile(Collection<String> includes, Collection<String> excludes, Mode mode) {
+        return new ProjectMatcher(
+                includes == null ? Collections.<String>emptyList() : includes,
+                excludes == null ? Collections.<String>emptyList() : excludes,
+                mode);
+    }
+
+    /**
+     * Is the project included based on includes and excludes lists.
+     *
+     * @param mavenProject MavenProject to check
+     * @return true if the project is included
+     * @see MojoUtilities#isIncluded(Collection, Collection, MavenProject)
+     */
+    public boolean isIncluded(MavenProject mavenProject) {
+        return isIncluded(MojoUtilities.getProjectId(mavenProject));
+    }
+
+    /**
+     * Is the project id (groupId:artifactId:packaging) included
+     * based on includes and excludes lists.
+     *
+     * @param projectId Project id
+     * @return true if the project id is included
+     */
+    public boolean isIncluded(String projectId) {
+        if (automaton != null) {
+            int flags = automaton.classify(projectId);
+            return ((flags & GlobAutomaton.INCLUDE) != 0 || matchesAny(includes, projectId))
+                    && (flags & GlobAutomaton.EXCLUDE) == 0 && !matchesAny(excludes, projectId);
+        }
+        return matchesAny(includes, projectId) && !matchesAny(excludes, projectId);
+    }
+
+    /**
+     * Is the automaton in use.
+     *
+     * @return true if wildcard patterns are merged into an automaton
+     */
+    boolean usesAutomaton() {
+        return automaton != null;
+    }
+
+    /**
+     * The include patterns in their original form.
+     *
+     * @return unmodifiable list
+     */
+    public List<String> getIncludePatterns() {
+        return includePatterns;
+    }
+
+    /**
+     * The exclude patterns in their original form.
+     *
+     * @return unmodifiable list
+     */
+    public List<String> getExcludePatterns() {
+        return excludePatterns;
+    }
+
+    private static boolean matchesAny(List<Matcher> matchers, String projectId) {
+        for (Matcher matcher : matchers) {
+            if (matcher.matches(projectId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void compileAll(List<String> patterns, List<Matcher> matchers, GlobAutomaton.Builder builder, int flag) {
+        for (String pattern : patterns) {
+            if (builder != null) {
+                List<String> literals = splitLiterals(MojoUtilities.convertStringForMatching(pattern));
+                if (literals != null) {
+                    builder.add(literals, flag);
+                    continue;
+                }
+            }
+            matchers.add(compilePattern(pattern));
+        }
+    }
+
+    /**
+     * Compile one pattern.
+     * The fast path is chosen by inspecting the regular expression
+     * created by {@link MojoUtilities#convertStringForMatching(String)},
+     * so both paths always give the same result.
+     *
+     * @param pattern Pattern as given by the user
+     * @return the compiled matcher
+     */
+    static Matcher compilePattern(String pattern) {
+        String regex = MojoUtilities.convertStringForMatching(pattern);
+        List<String> literals = splitLiterals(regex);
+        if (literals == null) {
+            return new RegexMatcher(Pattern.compile(regex));
+        }
+        return new GlobMatcher(literals);
+    }
+
+    /**
+     * Split a converted pattern into the literal parts between wildcards (.*).
+     * Empty strings mark leading and trailing wildcards.
+     *
+     * @param regex Regular expression from convertStringForMatching
+     * @return the literals, or null if the expression contains other regex constructs
+     */
+    static List<String> splitLiterals(String regex) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length() && regex.charAt(i + 1) == '.') {
+                current.append('.');
+                i += 2;
+            } else if (c == '.' && i + 1 < regex.length() && regex.charAt(i + 1) == '*') {
+                literals.add(current.toString());
+                current.setLength(0);
+                i += 2;
+                // Consecutive wildcards are one wildcard.
+                while (regex.startsWith(".*", i)) {
+                    i += 2;
+                }
+            } else if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                return null;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        literals.add(current.toString());
+        return literals;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectMatcher{"
+                + "includes=" + includePatterns
+                + ", excludes=" + excludePatterns
+                + '}';
+    }
+
+    /**
+     * One compiled pattern.
+     */
+    interface Matcher {
+        /**
+         * Match the whole project id.
+         *
+         * @param projectId Project id
+         * @return true if matches
+         */
+        boolean matches(String projectId);
+    }
+
+    /**
+     * Matcher without regular expressions for patterns
+     * which contain only literal parts and wildcards.
+     * A pattern without wildcards is compared with equals,
+     * otherwise the first part must be a prefix, the last part a suffix
+     * and the parts in between are searched for in order.
+     */
+    static final class GlobMatcher implements Matcher {
+        private final String[] parts;
+        private final int minLength;
+
+        GlobMatcher(List<String> literals) {
+            this.parts = literals.toArray(new String[0]);
+            int length = 0;
+            for (String part : parts) {
+                length += part.length();
+            }
+            this.minLength = length;
+        }
+
+        /**
+         * Is this a plain literal without wildcards.
+         *
+         * @return true if literal
+         */
+        boolean isLiteral() {
+            return parts.length == 1;
+        }
+
+        @Override
+        public boolean matches(String projectId) {
+            if (parts.length == 1) {
+                return projectId.equals(parts[0]);
+            }
+            if (projectId.length() < minLength) {
+                return false;
+            }
+            String first = parts[0];
+            String last = parts[parts.length - 1];
+            if (!projectId.startsWith(first) || !projectId.endsWith(last)) {
+                return false;
+            }
+            int position = first.length();
+            int end = projectId.length() - last.length();
+            for (int i = 1; i < parts.length - 1; i++) {
+                int found = projectId.indexOf(parts[i], position);
+                if (found < 0 || found + parts[i].length() > end) {
+                    return false;
+                }
+                position = found + parts[i].length();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Matcher with a precompiled regular expression.
+     */
+    static final class RegexMatcher implements Matcher {
+        private final Pattern pattern;
+
+        RegexMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(String projectId) {
+            return pattern.matcher(projectId).matches();
+        }
+    }
+}
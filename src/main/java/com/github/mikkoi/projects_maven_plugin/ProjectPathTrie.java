@@ -0,0 +1,82 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Find the project which owns a file: the project whose base directory
+ * is the longest prefix of the file path.
+ * <p>
+ * The base directories are stored in a trie by path name elements,
+ * so a lookup walks the file path once, whatever the number of projects.
+ * All paths are made absolute and normalized before they are compared.
+ */
+final class ProjectPathTrie {
+
+    /**
+     * Node of the trie: one path name element.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private MavenProject project;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Build the trie from the base directories of projects.
+     * Projects without a base directory are skipped.
+     *
+     * @param projects Projects
+     */
+    ProjectPathTrie(Collection<MavenProject> projects) {
+        for (MavenProject project : projects) {
+            if (project.getBasedir() != null) {
+                Node node = root;
+                for (String element : elements(project.getBasedir().toPath())) {
+                    node = node.children.computeIfAbsent(element, name -> new Node());
+                }
+                node.project = project;
+            }
+        }
+    }
+
+    /**
+     * Find the project which owns a file.
+     *
+     * @param path Path of a file or directory
+     * @return the project with the longest base directory containing the path, or null if none
+     */
+    MavenProject findOwner(Path path) {
+        Node node = root;
+        MavenProject owner = root.project;
+        for (String element : elements(path)) {
+            node = node.children.get(element);
+            if (node == null) {
+                break;
+            }
+            if (node.project != null) {
+                owner = node.project;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Name elements of a path, starting with its root, e.g. "/" or "C:\".
+     */
+    private static String[] elements(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        int count = normalized.getNameCount();
+        String[] elements = new String[count + 1];
+        elements[0] = String.valueOf(normalized.getRoot());
+        for (int i = 0; i < count; i++) {
+            elements[i + 1] = normalized.getName(i).toString();
+        }
+        return elements;
+    }
+}
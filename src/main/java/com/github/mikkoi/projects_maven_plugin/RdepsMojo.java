@@ -0,0 +1,95 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.util.List;
+
+/**
+ * List the projects in the build which depend on the selected projects,
+ * through the dependencies declared in the projects.
+ * See goal deps for the reverse query.
+ * <p>
+ * The output is like in goal list. See {@link ReactorQueryMojo}.
+ */
+@Mojo(name = "rdeps", defaultPhase = LifecyclePhase.NONE, aggregator = true)
+public class RdepsMojo extends ReactorQueryMojo {
+
+    /**
+     * Create the goal.
+     */
+    public RdepsMojo() {
+        super(Direction.DEPENDENTS);
+    }
+
+    /**
+     * Select the projects whose dependent projects are listed, by project [groupId:]artifactId.
+     * Default value: all projects selected.
+     *
+     * @param includes the includes
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".includes")
+    public void setIncludes(List<String> includes) {
+        super.setIncludes(includes);
+    }
+
+    /**
+     * Exclude projects from the selection by project [groupId:]artifactId.
+     * Default value: No projects excluded.
+     *
+     * @param excludes the excludes
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".excludes")
+    public void setExcludes(List<String> excludes) {
+        super.setExcludes(excludes);
+    }
+
+    /**
+     * Also list the projects which depend on the dependent projects.
+     *
+     * @param transitive true to follow transitively
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".transitive", defaultValue = "false")
+    public void setTransitive(boolean transitive) {
+        super.setTransitive(transitive);
+    }
+
+    /**
+     * Sorting order: maven | alphabetic | topological | reverse-topological | waves, default: maven
+     *
+     * @param sortOrder the sort order
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".sortOrder", defaultValue = "maven")
+    public void setSortOrder(String sortOrder) {
+        super.setSortOrder(sortOrder);
+    }
+
+    /**
+     * Format for printing, with the same placeholders as in goal list.
+     * Default value: {groupId}:{artifactId}
+     *
+     * @param printFormat the print format
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".printFormat", defaultValue = "{groupId}:{artifactId}")
+    public void setPrintFormat(String printFormat) {
+        super.setPrintFormat(printFormat);
+    }
+
+    /**
+     * Output format: text | json | ndjson | csv, see goal list.
+     * Default: text
+     *
+     * @param outputFormat the output format
+     */
+    @Override
+    @Parameter(property = "projects" + ".rdeps" + ".outputFormat", defaultValue = "text")
+    public void setOutputFormat(String outputFormat) {
+        super.setOutputFormat(outputFormat);
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of the dependencies declared between the projects in the build,
+ * for goals deps and rdeps.
+ * <p>
+ * Every project gets an id, its position in the list the index is built from.
+ * The edges are held in both directions as arrays of ids:
+ * {@code dependencies[id]} are the projects which project id depends on and
+ * {@code dependents[id]} are the projects which depend on it.
+ * The index is built once in time linear to the number of declared dependencies;
+ * after that a query never looks at the dependency lists again,
+ * and a transitive query is a breadth first search with a bit set of visited ids.
+ */
+final class ReactorIndex {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final MavenProject[] projects;
+    private final Map<ProjectKey, Integer> ids;
+    private final String[] versions;
+    private final int[][] dependencies;
+    private final int[][] dependents;
+
+    private ReactorIndex(List<MavenProject> projectList) {
+        int size = projectList.size();
+        projects = projectList.toArray(new MavenProject[0]);
+        ids = new HashMap<>(size * 2);
+        versions = new String[size];
+        for (int id = 0; id < size; id++) {
+            ids.putIfAbsent(ProjectKey.of(projects[id]), id);
+            versions[id] = projects[id].getVersion();
+        }
+        dependencies = new int[size][];
+        int[] dependentCounts = new int[size];
+        int[] buffer = new int[16];
+        for (int id = 0; id < size; id++) {
+            int count = 0;
+            for (Dependency dependency : projects[id].getDependencies()) {
+                Integer target = ids.get(ProjectKey.of(dependency));
+                if (target != null && target != id && versions[target].equals(dependency.getVersion())
+                        && !contains(buffer, count, target)) {
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, count * 2);
+                    }
+                    buffer[count++] = target;
+                    dependentCounts[target]++;
+                }
+            }
+            dependencies[id] = count == 0 ? NO_EDGES : Arrays.copyOf(buffer, count);
+        }
+        dependents = new int[size][];
+        for (int id = 0; id < size; id++) {
+            dependents[id] = dependentCounts[id] == 0 ? NO_EDGES : new int[dependentCounts[id]];
+            dependentCounts[id] = 0;
+        }
+        for (int id = 0; id < size; id++) {
+            for (int target : dependencies[id]) {
+                dependents[target][dependentCounts[target]++] = id;
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Build the index.
+     * Dependencies are matched to projects by groupId, artifactId and version, like in Maven.
+     * Dependencies to artifacts outside the build are left out, also those to another
+     * version of a project in the build, for example an earlier release.
+     *
+     * @param projects Projects in the build, usually in Maven order
+     * @return the index
+     */
+    static ReactorIndex of(List<MavenProject> projects) {
+        return new ReactorIndex(projects);
+    }
+
+    /**
+     * Number of projects in the index.
+     *
+     * @return the number of projects
+     */
+    int size() {
+        return projects.length;
+    }
+
+    /**
+     * Id of a project.
+     *
+     * @param project Project
+     * @return the id, or -1 if the project is not in the index
+     */
+    int id(MavenProject project) {
+        Integer id = ids.get(ProjectKey.of(project));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Project with an id.
+     *
+     * @param id Id
+     * @return the project
+     */
+    MavenProject project(int id) {
+        return projects[id];
+    }
+
+    /**
+     * Ids of the projects which match a filter.
+     *
+     * @param filter Filter
+     * @return the ids
+     */
+    BitSet select(Predicate<MavenProject> filter) {
+        BitSet selected = new BitSet(projects.length);
+        for (int id = 0; id < projects.length; id++) {
+            if (filter.test(projects[id])) {
+                selected.set(id);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Projects which the given projects depend on.
+     *
+     * @param from       Ids of the projects
+     * @param transitive Also the dependencies of the dependencies
+     * @return ids of the projects reached by following at least one dependency
+     */
+    BitSet dependencies(BitSet from, boolean transitive) {
+        return follow(dependencies, from, transitive);
+    }
+
+    /**
+     * Projects which depend on the given projects.
+     *
+     * @param from       Ids of the projects
+     * @param transitive Also the projects which depend on the dependent projects
+     * @return ids of the projects reached by following at least one dependency backwards
+     */
+    BitSet dependents(BitSet from, boolean transitive) {
+        return follow(dependents, from, transitive);
+    }
+
+    private BitSet follow(int[][] edges, BitSet from, boolean transitive) {
+        BitSet reached = new BitSet(projects.length);
+        int[] queue = new int[projects.length];
+        int head = 0;
+        int tail = 0;
+        for (int id = from.nextSetBit(0); id >= 0; id = from.nextSetBit(id + 1)) {
+            for (int next : edges[id]) {
+                if (!reached.get(next)) {
+                    reached.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        while (transitive && head < tail) {
+            for (int next : edges[queue[head++]]) {
+                if (!reached.get(next)) {
+                    reached.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Projects with the ids, in the order of the ids.
+     *
+     * @param ids Ids
+     * @return the projects
+     */
+    List<MavenProject> projects(BitSet ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MavenProject> list = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            list.add(projects[id]);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Sort orders computed from the project dependency graph of the build:
+ * topological, reverse topological and build waves.
+ * <p>
+ * The wave of a project is 0 if it depends on no other project in the build,
+ * otherwise one more than the highest wave of the projects it depends on.
+ * All projects in one wave can be built at the same time,
+ * once the projects in the earlier waves are built.
+ * The waves are computed in one pass over the projects in build order,
+ * so every project is handled only after all the projects it depends on.
+ */
+final class ReactorOrder {
+
+    /**
+     * Position of every project in the build order.
+     */
+    private final Map<MavenProject, Integer> positions;
+    /**
+     * Wave of every project.
+     */
+    private final Map<MavenProject, Integer> waves;
+
+    private ReactorOrder(ProjectDependencyGraph graph) {
+        List<MavenProject> sortedProjects = graph.getSortedProjects();
+        positions = new HashMap<>(sortedProjects.size() * 2);
+        waves = new HashMap<>(sortedProjects.size() * 2);
+        for (MavenProject project : sortedProjects) {
+            positions.put(project, positions.size());
+            int wave = 0;
+            for (MavenProject upstream : graph.getUpstreamProjects(project, false)) {
+                Integer upstreamWave = waves.get(upstream);
+                if (upstreamWave != null && upstreamWave >= wave) {
+                    wave = upstreamWave + 1;
+                }
+            }
+            waves.put(project, wave);
+        }
+    }
+
+    /**
+     * Compute the order of the projects in a build.
+     *
+     * @param graph Project dependency graph of the build
+     * @return the order
+     */
+    static ReactorOrder of(ProjectDependencyGraph graph) {
+        return new ReactorOrder(graph);
+    }
+
+    /**
+     * The wave of a project.
+     *
+     * @param project Project
+     * @return the wave, or null if the project is not in the build
+     */
+    Integer getWave(MavenProject project) {
+        return waves.get(project);
+    }
+
+    /**
+     * Sort projects in a sort order which needs the dependency graph.
+     * Within a wave the projects are in alphabetical order.
+     * Projects which are not in the graph come last.
+     *
+     * @param projects  Projects
+     * @param sortOrder Sort order, one for which {@link SortOrder#isGraphOrder()} is true
+     * @return the sorted projects
+     */
+    Stream<MavenProject> sort(Stream<MavenProject> projects, SortOrder sortOrder) {
+        switch (sortOrder) {
+            case TOPOLOGICAL:
+                return projects.sorted(Comparator.comparingInt(this::position));
+            case REVERSE_TOPOLOGICAL:
+                return projects.sorted(Comparator.comparingInt(this::reversePosition));
+            case WAVES:
+                return SortOrder.ALPHABETIC.sort(projects, project -> String.format("%010d", wave(project))
+                        + MojoUtilities.getSortKey(project));
+            default:
+                throw new IllegalArgumentException(String.format("Sort order '%s' does not use the dependency graph", sortOrder));
+        }
+    }
+
+    private int position(MavenProject project) {
+        Integer position = positions.get(project);
+        return position == null ? Integer.MAX_VALUE : position;
+    }
+
+    private int reversePosition(MavenProject project) {
+        Integer position = positions.get(project);
+        return position == null ? Integer.MAX_VALUE : -position;
+    }
+
+    private int wave(MavenProject project) {
+        Integer wave = waves.get(project);
+        return wave == null ? Integer.MAX_VALUE : wave;
+    }
+}
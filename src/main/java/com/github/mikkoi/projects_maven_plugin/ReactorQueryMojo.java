@@ -0,0 +1,158 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base class for goals deps and rdeps, which list the projects in the build
+ * connected to the selected projects through the dependencies declared in the projects.
+ * The goals differ only in the {@link Direction} of the query.
+ * The parameters are declared in the goals, each with its own property prefix.
+ * <p>
+ * The output is like in goal list. See {@link ReactorIndex}.
+ */
+public abstract class ReactorQueryMojo extends BaseMojo {
+
+    /**
+     * Direction of the query.
+     */
+    enum Direction {
+        /** The projects which the selected projects depend on. */
+        DEPENDENCIES,
+        /** The projects which depend on the selected projects. */
+        DEPENDENTS
+    }
+
+    private final Direction direction;
+
+    private List<String> includes;
+    private List<String> excludes;
+    private boolean transitive;
+    private String sortOrder = "maven";
+    private String printFormat = "{groupId}:{artifactId}";
+    private String outputFormat = "text";
+
+    private ProjectMatcher projectMatcher;
+    private ProjectFormat projectFormat;
+    private OutputFormat resolvedOutputFormat;
+    private SortOrder resolvedSortOrder;
+
+    /**
+     * Create the goal.
+     *
+     * @param direction Direction of the query
+     */
+    ReactorQueryMojo(Direction direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Select projects by project [groupId:]artifactId.
+     * Default value: all projects selected.
+     *
+     * @param includes the includes
+     */
+    public void setIncludes(List<String> includes) {
+        this.includes = includes;
+    }
+
+    /**
+     * Exclude projects from the selection by project [groupId:]artifactId.
+     * Default value: No projects excluded.
+     *
+     * @param excludes the excludes
+     */
+    public void setExcludes(List<String> excludes) {
+        this.excludes = excludes;
+    }
+
+    /**
+     * Follow the dependencies transitively.
+     *
+     * @param transitive true to follow transitively
+     */
+    public void setTransitive(boolean transitive) {
+        this.transitive = transitive;
+    }
+
+    /**
+     * Sorting order: maven | alphabetic | topological | reverse-topological | waves, default: maven
+     *
+     * @param sortOrder the sort order
+     */
+    public void setSortOrder(String sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    /**
+     * Format for printing, with the same placeholders as in goal list.
+     * Default value: {groupId}:{artifactId}
+     *
+     * @param printFormat the print format
+     */
+    public void setPrintFormat(String printFormat) {
+        this.printFormat = printFormat;
+    }
+
+    /**
+     * Output format: text | json | ndjson | csv, see goal list.
+     * Default: text
+     *
+     * @param outputFormat the output format
+     */
+    public void setOutputFormat(String outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * Validate parameters provided via properties
+     * either on the command line or using configuration element in pom.
+     */
+    void validateAndPrepareParameters() throws MojoExecutionException {
+        getLog().debug("direction=" + direction);
+        getLog().debug("includes=" + includes);
+        getLog().debug("excludes=" + excludes);
+        getLog().debug("transitive=" + transitive);
+
+        projectMatcher = ProjectMatcher.compileOrAll(includes, excludes);
+        resolvedSortOrder = resolveSortOrder(sortOrder);
+        projectFormat = resolvePrintFormat(printFormat);
+        resolvedOutputFormat = resolveOutputFormat(outputFormat);
+    }
+
+    /**
+     * Query the index and convert the found projects to rows for printing.
+     *
+     * @param index Index of the projects in the build
+     * @return the rows
+     */
+    Stream<String> list(ReactorIndex index) {
+        BitSet selected = index.select(projectMatcher::isIncluded);
+        BitSet found = direction == Direction.DEPENDENCIES
+                ? index.dependencies(selected, transitive)
+                : index.dependents(selected, transitive);
+        ProjectDependencyGraph graph = mavenSession == null ? null : mavenSession.getProjectDependencyGraph();
+        return resolvedOutputFormat.rows(
+                MojoUtilities.selectProjects(index.projects(found), project -> true, resolvedSortOrder, graph), projectFormat);
+    }
+
+    /**
+     * The main entry point for mojo.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            getLog().info("Skip execution ...");
+            return;
+        }
+        validateAndPrepareParameters();
+
+        List<MavenProject> projects = mavenSession.getProjects();
+        printOut(list(ReactorIndex.of(projects)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorting order of the projects, parameter sortOrder of all goals.
+ */
+public enum SortOrder {
+
+    /**
+     * The order in which Maven gives the projects. Nothing is sorted.
+     */
+    MAVEN,
+
+    /**
+     * Alphabetical by groupId, artifactId and packaging.
+     */
+    ALPHABETIC,
+
+    /**
+     * Build order from the project dependency graph:
+     * every project comes after the projects it depends on.
+     */
+    TOPOLOGICAL,
+
+    /**
+     * Reverse build order from the project dependency graph:
+     * every project comes before the projects it depends on.
+     */
+    REVERSE_TOPOLOGICAL,
+
+    /**
+     * Build waves from the project dependency graph, see {@link ReactorOrder}.
+     * The projects in one wave can be built at the same time.
+     */
+    WAVES;
+
+    /**
+     * Parse a sort order.
+     * Both "alphabetic" and "alphabetical" are accepted.
+     *
+     * @param value Sort order, case insensitive, null means maven
+     * @return the sort order
+     * @throws IllegalArgumentException if the value is not known
+     */
+    public static SortOrder of(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return MAVEN;
+        }
+        String name = value.trim().toLowerCase(Locale.ROOT);
+        if ("maven".equals(name)) {
+            return MAVEN;
+        } else if ("alphabetic".equals(name) || "alphabetical".equals(name)) {
+            return ALPHABETIC;
+        }
+        for (SortOrder sortOrder : values()) {
+            if (sortOrder.toString().equals(name)) {
+                return sortOrder;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Unknown sort order '%s'. Allowed values: 'maven', 'alphabetic', 'topological', 'reverse-topological', 'waves'.",
+                value));
+    }
+
+    /**
+     * Is this sort order computed from the project dependency graph.
+     *
+     * @return true for topological, reverse-topological and waves
+     */
+    public boolean isGraphOrder() {
+        return this == TOPOLOGICAL || this == REVERSE_TOPOLOGICAL || this == WAVES;
+    }
+
+    /**
+     * Number of items from which the sort is done in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * Sort items in this order.
+     * <p>
+     * The sort key of every item is computed only once, before sorting,
+     * and the keys are then compared as plain strings.
+     * Large numbers of items are sorted in parallel.
+     * In Maven order the items are not sorted at all.
+     * The sort is done only when the stream is consumed.
+     *
+     * @param items   Items in Maven order
+     * @param sortKey Function to compute the sort key for alphabetical order
+     * @param <T>     Type of items
+     * @return the items, the same stream in Maven order
+     * @throws IllegalStateException if this sort order needs the project dependency graph
+     */
+    public <T> Stream<T> sort(Stream<T> items, Function<? super T, String> sortKey) {
+        if (this == MAVEN) {
+            return items;
+        } else if (isGraphOrder()) {
+            throw new IllegalStateException(String.format("Sort order '%s' needs the project dependency graph", this));
+        }
+        return StreamSupport.stream(() -> sortByKey(items, sortKey),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, false).onClose(items::close);
+    }
+
+    private static <T> Spliterator<T> sortByKey(Stream<T> items, Function<? super T, String> sortKey) {
+        List<Keyed<T>> keyed = items.map(item -> new Keyed<T>(sortKey.apply(item), item)).collect(Collectors.toList());
+        if (keyed.size() >= PARALLEL_THRESHOLD) {
+            keyed = keyed.parallelStream().sorted().collect(Collectors.toList());
+        } else {
+            keyed.sort(null);
+        }
+        List<T> sorted = new ArrayList<>(keyed.size());
+        for (Keyed<T> item : keyed) {
+            sorted.add(item.value);
+        }
+        return sorted.spliterator();
+    }
+
+    /**
+     * Item decorated with its sort key.
+     */
+    private static final class Keyed<T> implements Comparable<Keyed<T>> {
+        private final String key;
+        private final T value;
+
+        Keyed(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Keyed<T> o) {
+            return key.compareTo(o.key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transitive reduction of the dependencies added by goal add-internal.
+ * <p>
+ * A dependency on a project is left out if the project is already
+ * on the classpath with the same scope through another added dependency.
+ * Only the dependencies between the projects in the build are followed,
+ * as declared in their models, and only those which Maven would
+ * follow transitively with the same resulting scope:
+ * <ul>
+ *     <li>added with scope compile: compile dependencies,</li>
+ *     <li>added with scope runtime, provided or test: compile and runtime dependencies.</li>
+ * </ul>
+ * Optional dependencies and dependencies with exclusions are not followed.
+ * Only plain jar dependencies without classifier are left out.
+ * <p>
+ * The project dependency graph of the session is not used for this, although it is available.
+ * Its edges have no scope, optional flag or exclusions, and they include parents,
+ * plugins and extensions, so a project upstream in the graph is not necessarily
+ * on the classpath with the same scope. Leaving out a dependency because of such an edge
+ * would change the classpath.
+ * <p>
+ * The added dependencies of every scope are reduced with one
+ * breadth first search, so the cost is linear in the number of dependencies in the build.
+ */
+final class TransitiveReduction {
+
+    private static final String JAR = "jar";
+
+    private final Map<ProjectKey, MavenProject> projectsByKey;
+
+    private TransitiveReduction(List<MavenProject> projects) {
+        projectsByKey = new HashMap<>(projects.size() * 2);
+        for (MavenProject project : projects) {
+            projectsByKey.put(ProjectKey.of(project), project);
+        }
+    }
+
+    /**
+     * Leave out the dependencies which are already reachable through others.
+     *
+     * @param dependencies Dependencies to add, in order
+     * @param projects     All projects in the build
+     * @return the remaining dependencies, in the same order
+     */
+    static List<Dependency> reduce(List<Dependency> dependencies, List<MavenProject> projects) {
+        TransitiveReduction reduction = new TransitiveReduction(projects);
+        Map<String, List<Dependency>> byScope = new LinkedHashMap<>();
+        for (Dependency dependency : dependencies) {
+            byScope.computeIfAbsent(scopeOf(dependency), scope -> new ArrayList<>()).add(dependency);
+        }
+        Set<Dependency> pruned = Collections.newSetFromMap(new IdentityHashMap<Dependency, Boolean>());
+        for (Map.Entry<String, List<Dependency>> group : byScope.entrySet()) {
+            Set<MavenProject> reachable = reduction.reachable(group.getValue(), "compile".equals(group.getKey()));
+            for (Dependency dependency : group.getValue()) {
+                if (isPlainJar(dependency) && reachable.contains(reduction.projectOf(dependency))) {
+                    pruned.add(dependency);
+                }
+            }
+        }
+        if (pruned.isEmpty()) {
+            return dependencies;
+        }
+        List<Dependency> remaining = new ArrayList<>(dependencies.size() - pruned.size());
+        for (Dependency dependency : dependencies) {
+            if (!pruned.contains(dependency)) {
+                remaining.add(dependency);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Find the projects reachable in one or more steps from the projects of the dependencies.
+     *
+     * @param sources     Dependencies to start from
+     * @param compileOnly Follow only compile dependencies, otherwise compile and runtime
+     * @return the reachable projects
+     */
+    private Set<MavenProject> reachable(List<Dependency> sources, boolean compileOnly) {
+        Set<MavenProject> expanded = new HashSet<>();
+        Set<MavenProject> reachable = new HashSet<>();
+        Deque<MavenProject> queue = new ArrayDeque<>();
+        for (Dependency source : sources) {
+            MavenProject project = projectOf(source);
+            // A dependency of type pom brings the dependencies of the project, too.
+            if (project != null && (isPlainJar(source) || "pom".equals(source.getType()) && source.getClassifier() == null)) {
+                queue.add(project);
+            }
+        }
+        while (!queue.isEmpty()) {
+            MavenProject project = queue.poll();
+            if (!expanded.add(project)) {
+                continue;
+            }
+            for (Dependency edge : project.getDependencies()) {
+                if (follows(edge, compileOnly)) {
+                    MavenProject target = projectOf(edge);
+                    if (target != null && reachable.add(target)) {
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Does Maven bring the dependencies of the target transitively, with the same resulting scope.
+     * A dependency with exclusions is never followed: the target would be on the classpath
+     * but maybe not all of its own dependencies.
+     */
+    private static boolean follows(Dependency edge, boolean compileOnly) {
+        if (edge.isOptional() || !isPlainJar(edge) || !edge.getExclusions().isEmpty()) {
+            return false;
+        }
+        String scope = scopeOf(edge);
+        return "compile".equals(scope) || !compileOnly && "runtime".equals(scope);
+    }
+
+    private MavenProject projectOf(Dependency dependency) {
+        MavenProject project = projectsByKey.get(ProjectKey.of(dependency));
+        return project != null && project.getVersion().equals(dependency.getVersion()) ? project : null;
+    }
+
+    private static String scopeOf(Dependency dependency) {
+        String scope = dependency.getScope();
+        return scope == null || scope.isEmpty() ? "compile" : scope;
+    }
+
+    private static boolean isPlainJar(Dependency dependency) {
+        return JAR.equals(dependency.getType()) && (dependency.getClassifier() == null || dependency.getClassifier().isEmpty());
+    }
+}
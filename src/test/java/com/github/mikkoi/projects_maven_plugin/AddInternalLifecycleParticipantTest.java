@@ -0,0 +1,111 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AddInternalLifecycleParticipant.
+ */
+class AddInternalLifecycleParticipantTest {
+
+    private static Xpp3Dom element(String name, String value, Xpp3Dom... children) {
+        Xpp3Dom dom = new Xpp3Dom(name);
+        dom.setValue(value);
+        for (Xpp3Dom child : children) {
+            dom.addChild(child);
+        }
+        return dom;
+    }
+
+    private static MavenProject createProject(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging("jar");
+        return project;
+    }
+
+    @Test
+    void testReadList() {
+        Properties properties = new Properties();
+        properties.setProperty("projects.addInternal.excludes", "a, b");
+        Xpp3Dom configuration = element("configuration", null,
+                element("includes", null, element("include", "x"), element("include", "y")));
+
+        assertThat(AddInternalLifecycleParticipant.readList(configuration, "includes", "projects.addInternal.includes", properties))
+                .containsExactly("x", "y");
+        assertThat(AddInternalLifecycleParticipant.readList(configuration, "excludes", "projects.addInternal.excludes", properties))
+                .containsExactly("a", "b");
+        configuration.addChild(element("excludes", "c"));
+        assertThat(AddInternalLifecycleParticipant.readList(configuration, "excludes", "projects.addInternal.excludes", properties))
+                .containsExactly("c");
+    }
+
+    @Test
+    void testIsSkipped() {
+        Properties properties = new Properties();
+        assertThat(AddInternalLifecycleParticipant.isSkipped(element("configuration", null), properties)).isFalse();
+        properties.setProperty("projects.skip", "true");
+        assertThat(AddInternalLifecycleParticipant.isSkipped(element("configuration", null), properties)).isTrue();
+        assertThat(AddInternalLifecycleParticipant.isSkipped(element("configuration", null, element("skip", "false")), properties)).isFalse();
+    }
+
+    @Test
+    void testFindConfigurationsAndDependencies() {
+        MavenProject aggregate = createProject("aggregate");
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.mikkoi");
+        plugin.setArtifactId("projects-maven-plugin");
+        plugin.setConfiguration(element("configuration", null, element("excludes", "b")));
+        PluginExecution execution = new PluginExecution();
+        execution.setGoals(Collections.singletonList("add-internal"));
+        plugin.addExecution(execution);
+        PluginExecution other = new PluginExecution();
+        other.setGoals(Collections.singletonList("list"));
+        plugin.addExecution(other);
+        aggregate.getModel().setBuild(new Build());
+        aggregate.getModel().getBuild().addPlugin(plugin);
+
+        List<Xpp3Dom> configurations = AddInternalLifecycleParticipant.findConfigurations(aggregate);
+        assertThat(configurations).hasSize(1);
+        List<String> excludes = AddInternalLifecycleParticipant.readList(configurations.get(0), "excludes", "none", new Properties());
+        assertThat(excludes).containsExactly("b");
+
+        List<MavenProject> projects = Arrays.asList(createProject("a"), createProject("b"), aggregate);
+        List<Dependency> dependencies = AddInternalMojo.internalDependencies(aggregate, projects,
+                ProjectMatcher.compileOrAll(null, excludes), null, new DependencyRule("*", "compile", null, null));
+        assertThat(dependencies).extracting(Dependency::getArtifactId).containsExactly("a");
+        assertThat(dependencies.get(0).getScope()).isEqualTo("compile");
+    }
+
+    @Test
+    void testReadRules() {
+        Xpp3Dom configuration = element("configuration", null,
+                element("scope", "provided"),
+                element("dependencyRules", null,
+                        element("dependencyRule", null, element("pattern", "*-it"), element("scope", "test")),
+                        element("dependencyRule", null, element("pattern", "*:*:pom"), element("type", "pom"))));
+        List<DependencyRule> rules = AddInternalLifecycleParticipant.readRules(configuration);
+        assertThat(rules).extracting(DependencyRule::getPattern).containsExactly("*-it", "*:*:pom");
+        assertThat(rules.get(0).getScope()).isEqualTo("test");
+        assertThat(rules.get(1).getType()).isEqualTo("pom");
+        assertThat(AddInternalLifecycleParticipant.readValue(configuration, "scope", "p", "compile", new Properties()))
+                .isEqualTo("provided");
+        assertThat(AddInternalLifecycleParticipant.readValue(configuration, "type", "p", null, new Properties()))
+                .isNull();
+        assertThat(AddInternalLifecycleParticipant.readRules(element("configuration", null))).isEmpty();
+    }
+}
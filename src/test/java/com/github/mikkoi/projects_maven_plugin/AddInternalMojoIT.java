@@ -14,6 +14,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
 import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
 
 /**
@@ -52,8 +57,60 @@ public class AddInternalMojoIT {
             assertThat(result).out().info().doesNotContain(String.format("Project %s:projects-maven-plugin-add-internal-set-001-aggregate:%s has dependency %s:fifth:%s", g, v, g, v));
             assertThat(result).out().info().doesNotContain(String.format("Project %s:projects-maven-plugin-add-internal-set-001-aggregate:%s has dependency %s:projects-maven-plugin-add-internal-set-001-aggregate:%s", g, v, g, v));
             assertThat(result).out().info().doesNotContain(String.format("Project %s:projects-maven-plugin-add-internal-set-001-aggregate:%s has dependency %s:projects-maven-plugin-add-internal-set-001:%s", g, v, g, v));
+            assertThat(result).out().info().contains(String.format("Add dependency %s:other:pom:%s:compile to project %s:projects-maven-plugin-add-internal-set-001-aggregate:pom:%s", g, v, g, v));
+            assertThat(result).out().info().contains(String.format("Add dependency %s:second:pom:%s:compile to project %s:projects-maven-plugin-add-internal-set-001-aggregate:pom:%s", g, v, g, v));
             //assertThat(result).out().warn().contains("");
         }
     }
 
+    /*
+        Plugin as build extension in a parallel build.
+        The aggregate is the first module and has no dependencies of its own,
+        so it is built last only if the dependencies are added before the build.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("install")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenOption(value = MavenCLIOptions.THREADS, parameter = "4")
+    @MavenRepository   // We can share the local repository because this plugin does not use it.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_002 {
+
+        @MavenTest
+        @Order(1)
+        void the_first_test_case(MavenExecutionResult result) throws IOException {
+            String g = System.getProperty("project.groupId");
+            String v = System.getProperty("project.version");
+
+            assertThat(result).isSuccessful();
+            assertThat(result).out().info().contains(String.format("Add 3 dependencies to project %s:projects-maven-plugin-add-internal-set-002-aggregate:pom:%s", g, v));
+            assertThat(result).out().info().contains(String.format("Project %s:projects-maven-plugin-add-internal-set-002-aggregate:%s has dependency %s:fourth:%s", g, v, g, v));
+            assertThat(result).out().info().contains(String.format("Project %s:projects-maven-plugin-add-internal-set-002-aggregate:%s has dependency %s:other:%s", g, v, g, v));
+            assertThat(result).out().info().contains(String.format("Project %s:projects-maven-plugin-add-internal-set-002-aggregate:%s has dependency %s:second:%s", g, v, g, v));
+            assertThat(result).out().info().doesNotContain(String.format("Project %s:projects-maven-plugin-add-internal-set-002-aggregate:%s has dependency %s:third:%s", g, v, g, v));
+            assertThat(result).out().warn().doesNotContain("Goal add-internal is not safe in a parallel build.");
+            // Rule *:*:pom sets type pom, so Maven does not look for jars of pom projects.
+            assertThat(result).out().warn().doesNotContain(String.format("o %s:other:jar:%s (compile)", g, v));
+
+            // Reactor Build Order lists the projects in the order Maven schedules them.
+            List<String> log = Files.readAllLines(result.getMavenLog().getStdout(), StandardCharsets.UTF_8);
+            int fourth = indexOf(log, "IT - set-002 - fourth ");
+            int aggregate = indexOf(log, "IT - set-002 - aggregate ");
+            org.assertj.core.api.Assertions.assertThat(fourth).isNotNegative();
+            org.assertj.core.api.Assertions.assertThat(aggregate).isGreaterThan(fourth);
+        }
+
+        private int indexOf(List<String> log, String text) {
+            for (int i = 0; i < log.size(); i++) {
+                if (log.get(i).contains(text)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
 }
@@ -1,8 +1,16 @@
 package com.github.mikkoi.projects_maven_plugin;
 
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 /**
@@ -10,10 +18,114 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 class AddInternalMojoTest {
 
+    private static final DependencyRule DEFAULTS = new DependencyRule("*", "compile", null, null);
+
     @Test
     void testSomething() {
         // Placeholder test
         assertThat(1 + 1).isEven();
     }
 
-}
\ No newline at end of file
+    private static MavenProject createProject(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging("jar");
+        return project;
+    }
+
+    @Test
+    void testInternalDependenciesSkipsExisting() {
+        MavenProject aggregate = createProject("aggregate");
+        Dependency declared = new Dependency();
+        declared.setGroupId("com.github.mikkoi");
+        declared.setArtifactId("module-1");
+        declared.setVersion("1.0");
+        declared.setScope("runtime");
+        aggregate.getModel().addDependency(declared);
+        Dependency testJar = new Dependency();
+        testJar.setGroupId("com.github.mikkoi");
+        testJar.setArtifactId("module-2");
+        testJar.setVersion("1.0");
+        testJar.setType("test-jar");
+        aggregate.getModel().addDependency(testJar);
+
+        List<MavenProject> projects = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            projects.add(createProject("module-" + i));
+        }
+        projects.add(createProject("module-3"));
+        projects.add(aggregate);
+        ProjectMatcher matcher = ProjectMatcher.compileOrAll(null, null);
+
+        List<Dependency> dependencies = AddInternalMojo.internalDependencies(aggregate, projects, matcher, null, DEFAULTS);
+        assertThat(dependencies).hasSize(1999);
+        assertThat(dependencies).extracting(Dependency::getArtifactId)
+                .doesNotContain("module-1", "aggregate")
+                .contains("module-0", "module-2", "module-3");
+
+        aggregate.getModel().getDependencies().addAll(dependencies);
+        assertThat(AddInternalMojo.internalDependencies(aggregate, projects, matcher, null, DEFAULTS)).isEmpty();
+        assertThat(AddInternalMojo.internalDependencies(aggregate, Collections.<MavenProject>emptyList(), matcher, null, DEFAULTS)).isEmpty();
+    }
+
+    @Test
+    void testInternalDependenciesSameArtifactId() {
+        MavenProject aggregate = createProject("core");
+        MavenProject other = createProject("core");
+        other.setGroupId("com.github.other");
+        MavenProject api = createProject("api");
+        MavenProject impl = createProject("impl");
+        // impl depends on the aggregate, so adding impl would make a cycle
+        Dependency onAggregate = new Dependency();
+        onAggregate.setGroupId(aggregate.getGroupId());
+        onAggregate.setArtifactId(aggregate.getArtifactId());
+        onAggregate.setVersion(aggregate.getVersion());
+        impl.getModel().addDependency(onAggregate);
+        List<MavenProject> projects = Arrays.asList(api, impl, other, aggregate);
+
+        assertThat(AddInternalMojo.dependentProjects(aggregate, projects))
+                .containsExactlyInAnyOrder(ProjectKey.of(aggregate), ProjectKey.of(impl));
+        List<Dependency> dependencies = AddInternalMojo.internalDependencies(aggregate, projects,
+                ProjectMatcher.compileOrAll(null, null), null, DEFAULTS);
+        assertThat(dependencies).extracting(dependency -> dependency.getGroupId() + ':' + dependency.getArtifactId())
+                .containsExactly("com.github.mikkoi:api", "com.github.other:core");
+    }
+
+    @Test
+    void testDependencyRules() {
+        MavenProject aggregate = createProject("aggregate");
+        MavenProject parent = createProject("parent");
+        parent.setPackaging("pom");
+        MavenProject war = createProject("web");
+        war.setPackaging("war");
+        List<MavenProject> projects = Arrays.asList(parent, createProject("core"), createProject("core-it"), war, aggregate);
+        List<DependencyRule> rules = Arrays.asList(
+                new DependencyRule("*-it", "test", null, null),
+                new DependencyRule("*:*:war", "provided", "war", null),
+                new DependencyRule("*:*:pom", null, "pom", null),
+                new DependencyRule("*", null, null, "never-used"));
+        AddInternalMojo.compileRules(rules, "runtime");
+
+        List<Dependency> dependencies = AddInternalMojo.internalDependencies(aggregate, projects,
+                ProjectMatcher.compileOrAll(null, null), rules.subList(0, 3), new DependencyRule("*", "runtime", null, null));
+        assertThat(dependencies).extracting(Dependency::getManagementKey)
+                .containsExactly("com.github.mikkoi:parent:pom", "com.github.mikkoi:core:jar",
+                        "com.github.mikkoi:core-it:jar", "com.github.mikkoi:web:war");
+        assertThat(dependencies).extracting(Dependency::getScope)
+                .containsExactly("runtime", "runtime", "test", "provided");
+    }
+
+    @Test
+    void testInvalidRules() {
+        assertThatThrownBy(() -> AddInternalMojo.compileRules(null, "import"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'import'");
+        assertThatThrownBy(() -> AddInternalMojo.compileRules(
+                Collections.singletonList(new DependencyRule(null, "test", null, null)), "compile"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("pattern");
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import com.soebes.itf.jupiter.extension.MavenCLIOptions;
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenOption;
+import com.soebes.itf.jupiter.extension.MavenProject;
+import com.soebes.itf.jupiter.extension.MavenRepository;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.extension.SystemProperty;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+/**
+ * Integration tests for AffectedMojo.
+ */
+@MavenJupiterExtension
+public class AffectedMojoIT {
+
+    /*
+        Module tree: root, other, second, and third and fourth under second.
+        Every module depends on its parent.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("${project.groupId}:${project.artifactId}:${project.version}:affected")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenRepository   // We can share the local repository because this plugin does not use it.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_001 {
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/affected.txt")
+        @SystemProperty(value = "projects.affected.changedFiles", content = "other/second/third/src/main/java/Greeting.java")
+        @Order(1)
+        void the_first_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/affected.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly("com.github.mikkoi:third");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/affected.txt")
+        @SystemProperty(value = "projects.affected.changedFiles", content = "other/pom.xml")
+        @SystemProperty(value = "projects.affected.sortOrder", content = "alphabetic")
+        @Order(2)
+        void the_second_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/affected.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly("com.github.mikkoi:fourth", "com.github.mikkoi:other",
+                            "com.github.mikkoi:second", "com.github.mikkoi:third");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/affected.txt")
+        @SystemProperty(value = "projects.affected.changedFilesFile", content = "changed-files.txt")
+        @SystemProperty(value = "projects.affected.printFormat", content = "{artifactId}")
+        @Order(3)
+        void the_third_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/affected.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactlyInAnyOrder("third", "fourth");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AffectedMojo and ProjectPathTrie.
+ */
+class AffectedMojoTest {
+
+    private static MavenProject createProject(String artifactId, Path basedir) {
+        MavenProject project = ReactorOrderTest.createProject(artifactId);
+        project.setFile(basedir.resolve("pom.xml").toFile());
+        return project;
+    }
+
+    private static List<String> artifactIds(Iterable<MavenProject> projects) {
+        List<String> artifactIds = new ArrayList<>();
+        projects.forEach(project -> artifactIds.add(project.getArtifactId()));
+        Collections.sort(artifactIds);
+        return artifactIds;
+    }
+
+    @Test
+    void testFindOwner() {
+        Path root = Paths.get("/work/repo");
+        MavenProject parent = createProject("parent", root);
+        MavenProject core = createProject("core", root.resolve("core"));
+        MavenProject coreApi = createProject("core-api", root.resolve("core/api"));
+        MavenProject coreApiExtra = createProject("core-api-extra", root.resolve("core/api-extra"));
+        ProjectPathTrie trie = new ProjectPathTrie(Arrays.asList(coreApi, parent, core, coreApiExtra));
+
+        assertThat(trie.findOwner(root.resolve("pom.xml"))).isSameAs(parent);
+        assertThat(trie.findOwner(root.resolve("core/src/main/java/A.java"))).isSameAs(core);
+        assertThat(trie.findOwner(root.resolve("core/api/src/main/java/A.java"))).isSameAs(coreApi);
+        assertThat(trie.findOwner(root.resolve("core/api-extra/pom.xml"))).isSameAs(coreApiExtra);
+        assertThat(trie.findOwner(root.resolve("core/apiX/pom.xml"))).isSameAs(core);
+        assertThat(trie.findOwner(root.resolve("core/api/../README.md"))).isSameAs(core);
+        assertThat(trie.findOwner(root.resolve("core/api"))).isSameAs(coreApi);
+        assertThat(trie.findOwner(Paths.get("/work/other/pom.xml"))).isNull();
+        assertThat(trie.findOwner(Paths.get("/work"))).isNull();
+    }
+
+    @Test
+    void testAffectedProjects() {
+        // d -> b -> a, c -> a, e alone
+        Path root = Paths.get("/work/repo");
+        MavenProject a = createProject("a", root.resolve("a"));
+        MavenProject b = createProject("b", root.resolve("b"));
+        MavenProject c = createProject("c", root.resolve("c"));
+        MavenProject d = createProject("d", root.resolve("d"));
+        MavenProject e = createProject("e", root.resolve("e"));
+        ReactorOrderTest.TestGraph graph = new ReactorOrderTest.TestGraph()
+                .add(a).add(e).add(b, a).add(c, a).add(d, b);
+        List<MavenProject> projects = graph.getSortedProjects();
+
+        assertThat(artifactIds(AffectedMojo.affectedProjects(projects, graph,
+                Collections.singletonList(root.resolve("a/src/A.java")), true)))
+                .containsExactly("a", "b", "c", "d");
+        assertThat(artifactIds(AffectedMojo.affectedProjects(projects, graph,
+                Arrays.asList(root.resolve("b/pom.xml"), root.resolve("e/pom.xml")), true)))
+                .containsExactly("b", "d", "e");
+        assertThat(artifactIds(AffectedMojo.affectedProjects(projects, graph,
+                Collections.singletonList(root.resolve("a/src/A.java")), false)))
+                .containsExactly("a");
+        assertThat(AffectedMojo.affectedProjects(projects, graph,
+                Collections.singletonList(root.resolve("README.md")), true)).isEmpty();
+    }
+
+    @Test
+    void testReadChangedFiles(@TempDir Path tempDir) throws IOException, MojoExecutionException {
+        Path file = tempDir.resolve("changed.txt");
+        Files.write(file, Arrays.asList("a/pom.xml", "", "  b/src/B.java  "), StandardCharsets.UTF_8);
+        AffectedMojo mojo = new AffectedMojo();
+        mojo.changedFiles = Collections.singletonList("/abs/c.txt");
+        mojo.changedFilesFile = file.toFile();
+        assertThat(mojo.readChangedFiles(tempDir).stream().map(Path::toString).collect(Collectors.toList()))
+                .containsExactly(Paths.get("/abs/c.txt").toString(),
+                        tempDir.resolve("a/pom.xml").toString(),
+                        tempDir.resolve("b/src/B.java").toString());
+
+        mojo.changedFilesFile = new File(tempDir.toFile(), "missing.txt");
+        assertThatThrownBy(() -> mojo.readChangedFiles(tempDir))
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageStartingWith("Failure in parameter 'changedFilesFile'.");
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Scm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BomModel.
+ */
+class BomModelTest {
+
+    private static Model createSource() {
+        Model source = new Model();
+        source.setGroupId("g");
+        source.setArtifactId("parent");
+        source.setVersion("1.0");
+        source.setPackaging("jar");
+        source.setName("Parent");
+        source.setDescription("Description");
+        source.setUrl("https://example.com");
+        License license = new License();
+        license.setName("Apache-2.0");
+        source.addLicense(license);
+        Scm scm = new Scm();
+        scm.setUrl("https://example.com/scm");
+        source.setScm(scm);
+        source.setParent(new Parent());
+        source.setBuild(new Build());
+        source.addModule("module");
+        source.addProfile(new Profile());
+        source.addProperty("key", "value");
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("x");
+        dependency.setArtifactId("y");
+        source.addDependency(dependency);
+        source.setDependencyManagement(new DependencyManagement());
+        source.getDependencyManagement().addDependency(dependency);
+        return source;
+    }
+
+    @Test
+    void testCreate() {
+        Model model = BomModel.create(createSource(), Arrays.asList(BomModel.DEFAULT_FIELDS.split(",")),
+                "bom.group", "bom", "2.0", "BOM");
+
+        assertThat(model.getModelVersion()).isEqualTo("4.0.0");
+        assertThat(model.getGroupId()).isEqualTo("bom.group");
+        assertThat(model.getArtifactId()).isEqualTo("bom");
+        assertThat(model.getVersion()).isEqualTo("2.0");
+        assertThat(model.getPackaging()).isEqualTo("pom");
+        assertThat(model.getName()).isEqualTo("BOM");
+        assertThat(model.getDescription()).isEqualTo("Description");
+        assertThat(model.getUrl()).isEqualTo("https://example.com");
+        assertThat(model.getLicenses()).extracting(License::getName).containsExactly("Apache-2.0");
+        assertThat(model.getScm().getUrl()).isEqualTo("https://example.com/scm");
+
+        assertThat(model.getParent()).isNull();
+        assertThat(model.getBuild()).isNull();
+        assertThat(model.getModules()).isEmpty();
+        assertThat(model.getProfiles()).isEmpty();
+        assertThat(model.getProperties()).isEmpty();
+        assertThat(model.getDependencies()).isEmpty();
+        assertThat(model.getDependencyManagement().getDependencies()).isEmpty();
+    }
+
+    @Test
+    void testCreateWithSomeFields() {
+        Model model = BomModel.create(createSource(), Collections.singletonList("licenses"), "g", "bom", "1", "BOM");
+        assertThat(model.getLicenses()).hasSize(1);
+        assertThat(model.getDescription()).isNull();
+        assertThat(model.getUrl()).isNull();
+        assertThat(model.getScm()).isNull();
+    }
+
+    @Test
+    void testValidate() {
+        BomModel.validate(Arrays.asList(BomModel.DEFAULT_FIELDS.split(",")));
+        assertThatThrownBy(() -> BomModel.validate(Arrays.asList("scm", "build")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unknown field 'build'. Allowed values: description, url,");
+    }
+}
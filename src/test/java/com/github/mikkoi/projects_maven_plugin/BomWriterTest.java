@@ -0,0 +1,76 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.DefaultModelWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BomWriter.
+ */
+class BomWriterTest {
+
+    private static Model createBom() {
+        Model source = new Model();
+        source.setDescription("Description with <special> & characters");
+        License license = new License();
+        license.setName("Apache-2.0");
+        source.addLicense(license);
+        return BomModel.create(source, Arrays.asList(BomModel.DEFAULT_FIELDS.split(",")), "g", "bom", "1.0", "BOM");
+    }
+
+    private static Dependency dependency(String groupId, String artifactId, String version, String type, String classifier) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        dependency.setType(type);
+        dependency.setClassifier(classifier);
+        return dependency;
+    }
+
+    private static String writeWithModelWriter(Model model) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DefaultModelWriter().write(out, null, model);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testSameAsModelWriter() throws IOException {
+        Model model = createBom();
+        Dependency[] dependencies = {
+                dependency("g", "a", "1.0", "jar", null),
+                dependency("g", "b", "1.0", "pom", null),
+                dependency("x", "y&z", "2.0", "test-jar", "tests"),
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BomWriter writer = new BomWriter(out, model)) {
+            for (Dependency dependency : dependencies) {
+                writer.dependency(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                        dependency.getType(), dependency.getClassifier());
+            }
+        }
+        for (Dependency dependency : dependencies) {
+            model.getDependencyManagement().addDependency(dependency);
+        }
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(writeWithModelWriter(model));
+    }
+
+    @Test
+    void testEmptySameAsModelWriter() throws IOException {
+        Model model = createBom();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BomWriter(out, model).close();
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(writeWithModelWriter(model));
+        assertThat(model.getDependencyManagement().getDependencies()).isEqualTo(Collections.emptyList());
+    }
+}
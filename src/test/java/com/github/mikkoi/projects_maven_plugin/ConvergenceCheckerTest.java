@@ -0,0 +1,59 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ConvergenceChecker.
+ */
+class ConvergenceCheckerTest {
+
+    private static List<Artifact> artifacts(String... coordinates) {
+        Artifact[] artifacts = new Artifact[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            artifacts[i] = new DefaultArtifact(coordinates[i]);
+        }
+        return Arrays.asList(artifacts);
+    }
+
+    private static Map<MavenProject, List<Artifact>> conflicting() {
+        Map<MavenProject, List<Artifact>> artifacts = new LinkedHashMap<>();
+        artifacts.put(ReactorOrderTest.createProject("a"), artifacts("x:lib:1.0", "x:lib:jar:tests:1.0", "x:util:3"));
+        artifacts.put(ReactorOrderTest.createProject("b"), artifacts("x:lib:2.0", "x:util:3"));
+        artifacts.put(ReactorOrderTest.createProject("c"), artifacts("x:lib:1.0"));
+        return artifacts;
+    }
+
+    @Test
+    void testConflicts() {
+        assertThat(new ConvergenceChecker().addAll(conflicting()).conflicts())
+                .containsExactly("x:lib: 1.0 (g:a, g:c), 2.0 (g:b)");
+        assertThat(new ConvergenceChecker().addAll(Collections.singletonMap(
+                ReactorOrderTest.createProject("a"), artifacts("x:lib:1.0", "x:util:3")))
+                .conflicts()).isEmpty();
+    }
+
+    @Test
+    void testCheckConvergence() {
+        CreateBomMojo mojo = new CreateBomMojo();
+        assertThatThrownBy(() -> mojo.checkConvergence(conflicting()))
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageStartingWith("Failure in parameter 'errorDependencyConvergence'. Dependency convergence: 1 dependencies")
+                .hasMessageContaining("x:lib: 1.0 (g:a, g:c), 2.0 (g:b)");
+        mojo.errorIsWarning = true;
+        assertThatCode(() -> mojo.checkConvergence(conflicting())).doesNotThrowAnyException();
+    }
+}
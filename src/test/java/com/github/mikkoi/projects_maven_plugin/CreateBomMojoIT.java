@@ -189,6 +189,113 @@ public class CreateBomMojoIT {
 
     }
 
+    /*
+        Modules core and app with external dependencies.
+        Core depends on commons-text, which depends on commons-lang3, and on junit-jupiter-api in test scope.
+        App depends on core and commons-lang3.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("${project.groupId}:${project.artifactId}:${project.version}:create-bom")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenRepository   // The external dependencies are downloaded into the shared local repository.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_002 {
+
+        // Only the external dependencies, compile and runtime scopes.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeProjects", content = "false")
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @Order(1)
+        void the_first_test_case(final MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path bomPath = Paths.get(result.getMavenProjectResult().getTargetProjectDirectory().toString(), "target", "bom", "pom.xml");
+            Model model = new DefaultModelReader().read(bomPath.toFile(), null);
+            org.assertj.core.api.Assertions.assertThat(model.getDependencyManagement().getDependencies())
+                    .extracting(dependency -> dependency.getManagementKey() + ":" + dependency.getVersion())
+                    .containsExactly("org.apache.commons:commons-lang3:jar:3.14.0", "org.apache.commons:commons-text:jar:1.12.0");
+        }
+
+        // Projects and external dependencies, also test scope.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @SystemProperty(value = "projects.createBom.dependencyScopes", content = "compile,runtime,test")
+        @SystemProperty(value = "projects.createBom.dependencyThreads", content = "1")
+        @Order(2)
+        void the_second_test_case(final MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path bomPath = Paths.get(result.getMavenProjectResult().getTargetProjectDirectory().toString(), "target", "bom", "pom.xml");
+            Model model = new DefaultModelReader().read(bomPath.toFile(), null);
+            org.assertj.core.api.Assertions.assertThat(model.getDependencyManagement().getDependencies())
+                    .extracting(Dependency::getArtifactId)
+                    .startsWith("projects-maven-plugin-create-bom-set-002", "core", "app")
+                    .contains("commons-lang3", "commons-text", "junit-jupiter-api", "opentest4j")
+                    .doesNotHaveDuplicates();
+        }
+
+        // Same as the second test case with the streaming writer: the BOM is the same, so it is up to date.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @SystemProperty(value = "projects.createBom.dependencyScopes", content = "compile,runtime,test")
+        @SystemProperty(value = "projects.createBom.dependencyThreads", content = "1")
+        @SystemProperty(value = "projects.createBom.streamingWriter", content = "true")
+        @Order(3)
+        void the_third_test_case(final MavenExecutionResult result) {
+            assertThat(result).isSuccessful().out().info()
+                    .anyMatch(line -> line.startsWith("BOM in ") && line.endsWith(" is up to date"));
+        }
+    }
+
+    /*
+        Like set_002 with module legacy which depends on an older commons-lang3.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("${project.groupId}:${project.artifactId}:${project.version}:create-bom")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenRepository   // The external dependencies are downloaded into the shared local repository.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_003 {
+
+        // Dependencies do not converge: error.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @Order(1)
+        void the_first_test_case(final MavenExecutionResult result) {
+            assertThat(result).isFailure().out().error()
+                    .anyMatch(line -> line.contains("org.apache.commons:commons-lang3: 3.14.0 (")
+                            && line.contains("3.12.0 (com.github.mikkoi:legacy)"));
+        }
+
+        // Dependencies do not converge: warning, the first version wins.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @SystemProperty(value = "projects.errorIsWarning", content = "true")
+        @Order(2)
+        void the_second_test_case(final MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful().out().warn()
+                    .anyMatch(line -> line.contains("Dependency convergence: 1 dependencies have several versions"));
+            Path bomPath = Paths.get(result.getMavenProjectResult().getTargetProjectDirectory().toString(), "target", "bom", "pom.xml");
+            Model model = new DefaultModelReader().read(bomPath.toFile(), null);
+            org.assertj.core.api.Assertions.assertThat(model.getDependencyManagement().getDependencies())
+                    .extracting(dependency -> dependency.getManagementKey() + ":" + dependency.getVersion())
+                    .contains("org.apache.commons:commons-lang3:jar:3.14.0");
+        }
+
+        // Convergence not checked.
+        @MavenTest
+        @SystemProperty(value = "projects.createBom.includeDependencies", content = "true")
+        @SystemProperty(value = "projects.createBom.errorDependencyConvergence", content = "false")
+        @Order(3)
+        void the_third_test_case(final MavenExecutionResult result) {
+            assertThat(result).isSuccessful();
+        }
+    }
+
     private Dependency getRootProjectAsDependency(final MavenExecutionResult result) {
         final Dependency rootProject = new Dependency();
         rootProject.setType(result.getMavenProjectResult().getModel().getPackaging());
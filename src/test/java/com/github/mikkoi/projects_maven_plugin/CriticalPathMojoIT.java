@@ -0,0 +1,75 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import com.soebes.itf.jupiter.extension.MavenCLIOptions;
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenOption;
+import com.soebes.itf.jupiter.extension.MavenProject;
+import com.soebes.itf.jupiter.extension.MavenRepository;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.extension.SystemProperty;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+/**
+ * Integration tests for CriticalPathMojo.
+ */
+@MavenJupiterExtension
+public class CriticalPathMojoIT {
+
+    /*
+        Module tree: root, other, second, and third and fourth under second.
+        Every module depends on its parent.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("${project.groupId}:${project.artifactId}:${project.version}:critical-path")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenRepository   // We can share the local repository because this plugin does not use it.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_001 {
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/critical-path.txt")
+        @Order(1)
+        void the_first_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/critical-path.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .startsWith("Critical path: 4 projects, length 4",
+                            "    com.github.mikkoi:projects-maven-plugin-critical-path-set-001 1",
+                            "    com.github.mikkoi:other 1",
+                            "    com.github.mikkoi:second 1")
+                    .contains("Projects per build wave: 4 waves, maximum parallelism 2 in wave 3",
+                            "    wave 3: 2",
+                            "    com.github.mikkoi:second 2 dependent projects");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/critical-path.txt")
+        @SystemProperty(value = "projects.criticalPath.buildTimesFile", content = "build-times.txt")
+        @SystemProperty(value = "projects.criticalPath.excludes", content = "other")
+        @Order(2)
+        void the_second_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/critical-path.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .startsWith("Critical path: 3 projects, length 5000 ms",
+                            "    com.github.mikkoi:projects-maven-plugin-critical-path-set-001 0 ms",
+                            "    com.github.mikkoi:second 0 ms",
+                            "    com.github.mikkoi:third 5000 ms");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.mikkoi.projects_maven_plugin.ReactorOrderTest.createProject;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CriticalPath and CriticalPathMojo.
+ */
+class CriticalPathTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MavenProject a = createProject("a");
+    private final MavenProject b = createProject("b");
+    private final MavenProject c = createProject("c");
+    private final MavenProject d = createProject("d");
+    private final MavenProject e = createProject("e");
+    // e -> c -> a, d -> b, c -> b, d -> a
+    private final ReactorOrderTest.TestGraph graph = new ReactorOrderTest.TestGraph()
+            .add(a).add(b).add(c, a, b).add(d, b, a).add(e, c);
+
+    @Test
+    void testLongestChain() {
+        CriticalPath criticalPath = CriticalPath.of(graph, project -> true, null);
+        assertThat(criticalPath.getPath()).extracting(MavenProject::getArtifactId).containsExactly("a", "c", "e");
+        assertThat(criticalPath.getLength()).isEqualTo(3);
+        assertThat(criticalPath.getProjectsPerWave()).containsExactly(2, 2, 1);
+        assertThat(criticalPath.getFanIn()).extracting(entry -> entry.getKey().getArtifactId() + "=" + entry.getValue())
+                .containsExactly("a=2", "b=2", "c=1");
+    }
+
+    @Test
+    void testBuildTimesAndExcludes() {
+        Map<ProjectKey, Long> times = new HashMap<>();
+        times.put(ProjectKey.of(b), 1000L);
+        times.put(ProjectKey.of(d), 5000L);
+        times.put(ProjectKey.of(e), 100L);
+        CriticalPath criticalPath = CriticalPath.of(graph, project -> true, times);
+        assertThat(criticalPath.getPath()).extracting(MavenProject::getArtifactId).containsExactly("b", "d");
+        assertThat(criticalPath.getLength()).isEqualTo(6000);
+        assertThat(criticalPath.weight(a)).isZero();
+
+        // Excluded c still connects a to e, but is not reported: a, e is as long as b, d
+        CriticalPath excluded = CriticalPath.of(graph, project -> project != c, null);
+        assertThat(excluded.getLength()).isEqualTo(2);
+        assertThat(excluded.getPath()).extracting(MavenProject::getArtifactId).containsExactly("b", "d");
+        CriticalPath slowE = CriticalPath.of(graph, project -> project != c, Collections.singletonMap(ProjectKey.of(e), 10L));
+        assertThat(slowE.getPath()).extracting(MavenProject::getArtifactId).containsExactly("a", "e");
+        assertThat(excluded.getProjectsPerWave()).containsExactly(2, 1, 1);
+        assertThat(excluded.getFanIn()).extracting(entry -> entry.getKey().getArtifactId()).containsExactly("a", "b");
+    }
+
+    @Test
+    void testReadBuildTimes() throws IOException {
+        Path file = Files.write(tempDir.resolve("times.txt"), Arrays.asList(
+                "# groupId:artifactId milliseconds", "", "g:a 1200", "  g:b\t30  "), StandardCharsets.UTF_8);
+        assertThat(CriticalPath.readBuildTimes(file))
+                .containsEntry(ProjectKey.of("g", "a"), 1200L)
+                .containsEntry(ProjectKey.of("g", "b"), 30L)
+                .hasSize(2);
+
+        Path invalid = Files.write(tempDir.resolve("invalid.txt"), Collections.singletonList("a 12"), StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> CriticalPath.readBuildTimes(invalid))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid row 1");
+    }
+
+    @Test
+    void testReport() throws Exception {
+        CriticalPathMojo mojo = new CriticalPathMojo();
+        mojo.topFanIn = 1;
+        mojo.validateAndPrepareParameters();
+        assertThat(mojo.report(CriticalPath.of(graph, project -> true, null))).containsExactly(
+                "Critical path: 3 projects, length 3",
+                "    g:a 1",
+                "    g:c 1",
+                "    g:e 1",
+                "Projects per build wave: 3 waves, maximum parallelism 2 in wave 0",
+                "    wave 0: 2",
+                "    wave 1: 2",
+                "    wave 2: 1",
+                "Highest fan-in: 1 of 3 projects",
+                "    g:a 2 dependent projects");
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DependencyCollector.
+ */
+class DependencyCollectorTest {
+
+    private static MavenProject createProject(String artifactId, String... dependencies) {
+        MavenProject project = ReactorOrderTest.createProject(artifactId);
+        for (String coordinates : dependencies) {
+            String[] parts = coordinates.split(":");
+            Dependency dependency = new Dependency();
+            dependency.setGroupId(parts[0]);
+            dependency.setArtifactId(parts[1]);
+            dependency.setVersion(parts[2]);
+            project.getDependencies().add(dependency);
+        }
+        return project;
+    }
+
+    private static DefaultDependencyNode node(String coordinates, String scope, DefaultDependencyNode... children) {
+        DefaultDependencyNode node = new DefaultDependencyNode(
+                new org.eclipse.aether.graph.Dependency(new DefaultArtifact(coordinates), scope));
+        node.setChildren(Arrays.asList(children));
+        return node;
+    }
+
+    /**
+     * Repository system which returns a fixed tree for every direct dependency
+     * and counts the requests.
+     */
+    private static RepositorySystem repositorySystem(AtomicInteger requests) {
+        return (RepositorySystem) Proxy.newProxyInstance(DependencyCollectorTest.class.getClassLoader(),
+                new Class<?>[] {RepositorySystem.class}, (proxy, method, args) -> {
+                    if (!"collectDependencies".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    requests.incrementAndGet();
+                    CollectRequest request = (CollectRequest) args[1];
+                    DefaultDependencyNode root = new DefaultDependencyNode((Artifact) null);
+                    for (org.eclipse.aether.graph.Dependency dependency : request.getDependencies()) {
+                        String artifactId = dependency.getArtifact().getArtifactId();
+                        if ("ext-a".equals(artifactId)) {
+                            root.getChildren().add(node("x:ext-a:1", "compile",
+                                    node("x:ext-c:3", "compile"), node("x:junit:4", "test")));
+                        } else if ("a".equals(artifactId)) {
+                            root.getChildren().add(node("g:a:1.0", "compile", node("x:ext-a:1", "compile")));
+                        } else {
+                            root.getChildren().add(node(dependency.getArtifact().toString(), "runtime"));
+                        }
+                    }
+                    return new CollectResult(request).setRoot(root);
+                });
+    }
+
+    private static List<String> names(List<Artifact> artifacts) {
+        return artifacts.stream().map(Artifact::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    void testCollect() throws Exception {
+        MavenProject a = createProject("a", "x:ext-a:1");
+        MavenProject b = createProject("b", "x:ext-a:1");
+        MavenProject c = createProject("c", "x:ext-b:2", "g:a:1.0");
+        List<MavenProject> projects = Arrays.asList(a, b, c);
+        AtomicInteger requests = new AtomicInteger();
+        DependencyCollector collector = new DependencyCollector(repositorySystem(requests),
+                new DefaultRepositorySystemSession(), Arrays.asList("compile", "runtime"), 2);
+
+        Map<MavenProject, List<Artifact>> artifacts = collector.collect(projects, projects);
+
+        assertThat(artifacts.keySet()).containsExactly(a, b, c);
+        assertThat(names(artifacts.get(a))).containsExactly("x:ext-a:jar:1", "x:ext-c:jar:3");
+        assertThat(names(artifacts.get(b))).containsExactly("x:ext-a:jar:1", "x:ext-c:jar:3");
+        assertThat(names(artifacts.get(c))).containsExactly("x:ext-b:jar:2", "x:ext-a:jar:1");
+        // Projects a and b have the same dependencies, so they make only one request.
+        assertThat(requests.get()).isEqualTo(2);
+
+        assertThat(names(CreateBomMojo.externalArtifacts(artifacts)))
+                .containsExactly("x:ext-a:jar:1", "x:ext-b:jar:2", "x:ext-c:jar:3");
+    }
+
+    @Test
+    void testRequestKey() {
+        DependencyCollector collector = new DependencyCollector(repositorySystem(new AtomicInteger()),
+                new DefaultRepositorySystemSession(), Arrays.asList("compile", "runtime"), 1);
+        String key = DependencyCollector.requestKey(collector.createRequest(createProject("a", "x:ext-a:1")));
+        assertThat(DependencyCollector.requestKey(collector.createRequest(createProject("b", "x:ext-a:1")))).isEqualTo(key);
+        assertThat(DependencyCollector.requestKey(collector.createRequest(createProject("a", "x:ext-a:2")))).isNotEqualTo(key);
+    }
+}
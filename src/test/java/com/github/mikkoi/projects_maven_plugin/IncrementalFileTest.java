@@ -0,0 +1,78 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IncrementalFile.
+ */
+class IncrementalFileTest {
+
+    private static boolean write(Path path, String content) throws IOException {
+        return IncrementalFile.write(path, out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testWriteOnlyWhenChanged(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("pom.xml");
+        Path hashFile = tempDir.resolve("pom.xml.sha256");
+
+        assertThat(write(file, "abc")).isTrue();
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).isEqualTo("abc");
+        // sha256sum of "abc"
+        assertThat(Files.readAllLines(hashFile, StandardCharsets.UTF_8)).containsExactly(
+                "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad  pom.xml");
+
+        FileTime written = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(file, written);
+        assertThat(write(file, "abc")).isFalse();
+        assertThat(Files.getLastModifiedTime(file)).isEqualTo(written);
+
+        assertThat(write(file, "abcd")).isTrue();
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).isEqualTo("abcd");
+        assertThat(Files.getLastModifiedTime(file)).isNotEqualTo(written);
+
+        // No temporary files are left behind.
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactlyInAnyOrder("pom.xml", "pom.xml.sha256");
+        }
+    }
+
+    @Test
+    void testWriteWhenFileOrHashIsMissing(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("pom.xml");
+        assertThat(write(file, "abc")).isTrue();
+        Files.delete(tempDir.resolve("pom.xml.sha256"));
+        assertThat(write(file, "abc")).isTrue();
+        Files.delete(file);
+        assertThat(write(file, "abc")).isTrue();
+        assertThat(file).exists();
+    }
+
+    @Test
+    void testWriteBom(@TempDir Path tempDir) throws IOException {
+        Model model = new Model();
+        model.setGroupId("g");
+        model.setArtifactId("bom");
+        Path file = tempDir.resolve("pom.xml");
+        assertThat(CreateBomMojo.writeBom(file, model)).isTrue();
+        assertThat(CreateBomMojo.writeBom(file, model.clone())).isFalse();
+        model.setVersion("2");
+        assertThat(CreateBomMojo.writeBom(file, model)).isTrue();
+    }
+
+    @Test
+    void testToHex() {
+        assertThat(IncrementalFile.toHex(new byte[] {0, 15, 16, (byte) 255})).isEqualTo("000f10ff");
+    }
+}
@@ -14,6 +14,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
 
 /**
@@ -129,5 +134,56 @@ public class ListMojoIT {
                     .contains("com.github.mikkoi:fourth:pom");
         }
 
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/projects.txt")
+        @SystemProperty(value = "projects.list.sortOrder", content = "alphabetic")
+        @Order(6)
+        void the_sixth_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful().out().info()
+                    .doesNotContain("com.github.mikkoi:other:pom");
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/projects.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly(
+                            "com.github.mikkoi:fourth:pom",
+                            "com.github.mikkoi:other:pom",
+                            "com.github.mikkoi:projects-maven-plugin-list-set-002:pom",
+                            "com.github.mikkoi:second:pom",
+                            "com.github.mikkoi:third:pom");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/projects.csv")
+        @SystemProperty(value = "projects.list.outputFormat", content = "csv")
+        @SystemProperty(value = "projects.list.printFormat", content = "{artifactId}{relPath}")
+        @SystemProperty(value = "projects.list.excludes", content = "second,third,fourth")
+        @Order(7)
+        void the_seventh_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/projects.csv");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly(
+                            "artifactId,relPath",
+                            "projects-maven-plugin-list-set-002,.",
+                            "other,other");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/waves.txt")
+        @SystemProperty(value = "projects.list.sortOrder", content = "waves")
+        @SystemProperty(value = "projects.list.printFormat", content = "{wave} {artifactId}")
+        @Order(8)
+        void the_eighth_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/waves.txt");
+            // A module depends on its parent, so every level of the module tree is a wave
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly(
+                            "0 projects-maven-plugin-list-set-002",
+                            "1 other",
+                            "2 second",
+                            "3 fourth",
+                            "3 third");
+        }
+
     }
 }
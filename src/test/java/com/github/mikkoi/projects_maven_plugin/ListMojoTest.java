@@ -1,13 +1,19 @@
 package com.github.mikkoi.projects_maven_plugin;
 
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for ListMojo.
@@ -65,4 +71,52 @@ class ListMojoTest {
         mojo.setPrintFormat("{artifactId}:{packaging}:{version}:{description}:{absPath}");
         assertThat(mojo.formatProject(project)).isEqualTo("this-artifact-id:ear:1.2.3-DEBUG:This Artifact Description\n has two rows.:/this/base/dir");
     }
+
+    @Test
+    void testUnknownPlaceholderFailsValidation() {
+        ListMojo mojo = new ListMojo();
+        mojo.setIncludes(new ArrayList<>());
+        mojo.setExcludes(new ArrayList<>());
+        mojo.setSortOrder("maven");
+        mojo.setPrintFormat("{groupId}:{artifact}");
+        assertThatThrownBy(mojo::validateAndPrepareParameters)
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageContaining("printFormat")
+                .hasMessageContaining("{artifact}");
+    }
+
+    @Test
+    void testListIsLazy() throws MojoExecutionException {
+        final AtomicInteger formatted = new AtomicInteger();
+        List<MavenProject> projects = new ArrayList<>();
+        for (String artifactId : new String[] {"c", "a", "b"}) {
+            MavenProject project = new MavenProject() {
+                @Override
+                public String getName() {
+                    formatted.incrementAndGet();
+                    return super.getName();
+                }
+            };
+            project.setGroupId("g");
+            project.setArtifactId(artifactId);
+            project.setName(artifactId.toUpperCase(Locale.ROOT));
+            project.setPackaging("jar");
+            projects.add(project);
+        }
+
+        ListMojo mojo = new ListMojo();
+        mojo.setIncludes(new ArrayList<>());
+        mojo.setExcludes(new ArrayList<>());
+        mojo.setSortOrder("maven");
+        mojo.setPrintFormat("{name}");
+        mojo.validateAndPrepareParameters();
+
+        Iterator<String> rows = mojo.list(projects).iterator();
+        assertThat(formatted.get()).isZero();
+        assertThat(rows.next()).isEqualTo("C");
+        assertThat(formatted.get()).isEqualTo(1);
+
+        mojo.setSortOrder("alphabetic");
+        assertThat(mojo.list(projects).collect(Collectors.toList())).containsExactly("A", "B", "C");
+    }
 }
@@ -4,9 +4,14 @@ import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for MojoUtilities.
@@ -71,4 +76,64 @@ class MojoUtilitiesTest {
         project.setArtifactId("artifact-something");
         assertThat(MojoUtilities.isIncluded(includes, excludes, project)).isTrue();
     }
+
+    private static MavenProject createProject(String groupId, String artifactId, String packaging) {
+        MavenProject project = new MavenProject();
+        project.setGroupId(groupId);
+        project.setArtifactId(artifactId);
+        project.setPackaging(packaging);
+        return project;
+    }
+
+    @Test
+    void testSelectProjects() {
+        List<MavenProject> projects = Arrays.asList(
+                createProject("b", "core", "jar"),
+                createProject("a-b", "core", "jar"),
+                createProject("a", "core", "pom"),
+                createProject("a", "core", "jar"),
+                createProject("a", "api", "jar"));
+        ProjectMatcher matcher = ProjectMatcher.compile(Collections.singletonList("*"), Collections.singletonList("api"));
+
+        assertThat(MojoUtilities.selectProjects(projects, matcher::isIncluded, SortOrder.MAVEN).map(MojoUtilities::getProjectId))
+                .containsExactly("b:core:jar", "a-b:core:jar", "a:core:pom", "a:core:jar");
+        // Compared field by field, not as the joined project id
+        assertThat(MojoUtilities.selectProjects(projects, matcher::isIncluded, SortOrder.ALPHABETIC).map(MojoUtilities::getProjectId))
+                .containsExactly("a:core:jar", "a:core:pom", "a-b:core:jar", "b:core:jar");
+    }
+
+    @Test
+    void testSortOrder() {
+        assertThat(SortOrder.of(null)).isEqualTo(SortOrder.MAVEN);
+        assertThat(SortOrder.of("maven")).isEqualTo(SortOrder.MAVEN);
+        assertThat(SortOrder.of("alphabetic")).isEqualTo(SortOrder.ALPHABETIC);
+        assertThat(SortOrder.of("Alphabetical")).isEqualTo(SortOrder.ALPHABETIC);
+        assertThat(SortOrder.ALPHABETIC).hasToString("alphabetic");
+        assertThatThrownBy(() -> SortOrder.of("random"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown sort order 'random'."
+                        + " Allowed values: 'maven', 'alphabetic', 'topological', 'reverse-topological', 'waves'.");
+    }
+
+    @Test
+    void testSortKeys() {
+        List<MavenProject> projects = new ArrayList<>();
+        Random random = new Random(7);
+        String[] parts = {"a", "a-b", "ab", "a.b", "b", ""};
+        for (int i = 0; i < SortOrder.PARALLEL_THRESHOLD + 100; i++) {
+            projects.add(createProject(parts[random.nextInt(parts.length)] + i % 13,
+                    parts[random.nextInt(parts.length)] + i,
+                    random.nextBoolean() ? "jar" : "pom"));
+        }
+        List<MavenProject> expected = new ArrayList<>(projects);
+        expected.sort(MojoUtilities.getMavenProjectComparator("alphabetic"));
+
+        assertThat(MojoUtilities.selectProjects(projects, project -> true, SortOrder.ALPHABETIC).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expected);
+        List<MavenProject> small = new ArrayList<>(projects.subList(0, 100));
+        List<MavenProject> expectedSmall = new ArrayList<>(small);
+        expectedSmall.sort(MojoUtilities.getMavenProjectComparator("alphabetic"));
+        assertThat(MojoUtilities.selectProjects(small, project -> true, SortOrder.ALPHABETIC).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expectedSmall);
+    }
 }
@@ -0,0 +1,82 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for OutputFormat.
+ */
+class OutputFormatTest {
+
+    private static MavenProject createProject(String artifactId, String name) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId(artifactId);
+        project.setPackaging("jar");
+        project.setName(name);
+        return project;
+    }
+
+    private static List<String> rows(OutputFormat outputFormat, String printFormat, MavenProject... projects) {
+        try (Stream<String> rows = outputFormat.rows(Arrays.stream(projects), ProjectFormat.compile(printFormat))) {
+            return rows.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testOf() {
+        assertThat(OutputFormat.of("json")).isEqualTo(OutputFormat.JSON);
+        assertThat(OutputFormat.of("NDJSON")).isEqualTo(OutputFormat.NDJSON);
+        assertThat(OutputFormat.of("Csv")).isEqualTo(OutputFormat.CSV);
+        assertThat(OutputFormat.TEXT).hasToString("text");
+        assertThatThrownBy(() -> OutputFormat.of("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'xml'")
+                .hasMessageContaining("'ndjson'");
+    }
+
+    @Test
+    void testText() {
+        assertThat(rows(OutputFormat.TEXT, "{artifactId}:{packaging}", createProject("a", "A")))
+                .containsExactly("a:jar");
+    }
+
+    @Test
+    void testNdjson() {
+        assertThat(rows(OutputFormat.NDJSON, "{artifactId} {name} {description} {artifactId}",
+                createProject("a", "Say \"hi\"\n\\o/\u0001"), createProject("b", "B")))
+                .containsExactly(
+                        "{\"artifactId\":\"a\",\"name\":\"Say \\\"hi\\\"\\n\\\\o/\\u0001\",\"description\":null}",
+                        "{\"artifactId\":\"b\",\"name\":\"B\",\"description\":null}");
+    }
+
+    @Test
+    void testJson() {
+        assertThat(rows(OutputFormat.JSON, "{artifactId}", createProject("a", "A"), createProject("b", "B")))
+                .containsExactly("[", "{\"artifactId\":\"a\"},", "{\"artifactId\":\"b\"}", "]");
+        assertThat(rows(OutputFormat.JSON, "{artifactId}"))
+                .containsExactly("[", "]");
+    }
+
+    @Test
+    void testCsv() {
+        assertThat(rows(OutputFormat.CSV, "{artifactId},{name},{description}",
+                createProject("a", "One, \"two\""), createProject("b", "B")))
+                .containsExactly(
+                        "artifactId,name,description",
+                        "a,\"One, \"\"two\"\"\",",
+                        "b,B,");
+        assertThat(OutputFormat.CSV.rows(Stream.<MavenProject>empty(), ProjectFormat.compile("{groupId}"))
+                .collect(Collectors.toList()))
+                .isEqualTo(Collections.singletonList("groupId"));
+    }
+}
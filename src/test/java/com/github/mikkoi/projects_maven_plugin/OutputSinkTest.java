@@ -0,0 +1,61 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for OutputSink.
+ */
+class OutputSinkTest {
+
+    /**
+     * Temporary directory for file writing tests.
+     */
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testFile() throws IOException {
+        Path path = tempDir.resolve("sub/dir/projects.txt");
+        try (OutputSink sink = OutputSink.file(path)) {
+            sink.write("com.github.mikkoi:first:jar");
+            sink.write("com.github.mikkoi:säcond:pom");
+        }
+        assertThat(Files.readAllLines(path, StandardCharsets.UTF_8))
+                .containsExactly("com.github.mikkoi:first:jar", "com.github.mikkoi:säcond:pom");
+
+        // Overwrite
+        try (OutputSink sink = OutputSink.file(path)) {
+            sink.write("only");
+        }
+        assertThat(Files.readAllLines(path, StandardCharsets.UTF_8)).containsExactly("only");
+    }
+
+    @Test
+    void testStdoutIsFlushedOnClose() throws IOException {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(captured, false, Charset.defaultCharset().name()));
+            OutputSink sink = OutputSink.stdout();
+            sink.write("first");
+            sink.write("second");
+            assertThat(captured.size()).isZero();
+            sink.close();
+        } finally {
+            System.setOut(original);
+        }
+        assertThat(new String(captured.toByteArray(), Charset.defaultCharset()))
+                .isEqualTo("first" + System.lineSeparator() + "second" + System.lineSeparator());
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ProjectFormat.
+ */
+class ProjectFormatTest {
+
+    private static MavenProject createProject() {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId("test-artifact");
+        project.setVersion("1.2.3");
+        project.setPackaging("jar");
+        project.setName("Test Artifact");
+        project.setFile(new File("/this/base/dir/pom.xml"));
+        return project;
+    }
+
+    @Test
+    void testFormat() {
+        MavenProject project = createProject();
+        assertThat(ProjectFormat.compile("{groupId}:{artifactId}:{packaging}").format(project))
+                .isEqualTo("com.github.mikkoi:test-artifact:jar");
+        assertThat(ProjectFormat.compile("{artifactId}-{version}.{packaging} ({name}) in {absPath}").format(project))
+                .isEqualTo("test-artifact-1.2.3.jar (Test Artifact) in /this/base/dir");
+        assertThat(ProjectFormat.compile("{artifactId}{artifactId}").format(project))
+                .isEqualTo("test-artifacttest-artifact");
+        assertThat(ProjectFormat.compile("no placeholders").format(project))
+                .isEqualTo("no placeholders");
+        assertThat(ProjectFormat.compile("").format(project)).isEmpty();
+    }
+
+    @Test
+    void testBracesWhichAreNotPlaceholders() {
+        MavenProject project = createProject();
+        assertThat(ProjectFormat.compile("{ \"id\": \"{artifactId}\" }").format(project))
+                .isEqualTo("{ \"id\": \"test-artifact\" }");
+        assertThat(ProjectFormat.compile("{{artifactId}}").format(project))
+                .isEqualTo("{test-artifact}");
+        assertThat(ProjectFormat.compile("{artifactId").format(project))
+                .isEqualTo("{artifactId");
+        assertThat(ProjectFormat.compile("{}{1}").format(project))
+                .isEqualTo("{}{1}");
+    }
+
+    @Test
+    void testMissingValue() {
+        MavenProject project = createProject();
+        assertThat(ProjectFormat.compile("{artifactId}: {description}").format(project))
+                .isEqualTo("test-artifact: {description}");
+    }
+
+    @Test
+    void testCompileForValues() {
+        ProjectFormat format = ProjectFormat.compileForValues("{artifactId}-{version} {artifactId} {description}",
+                Arrays.asList("artifactId", "version", "description"));
+        assertThat(format.getFieldNames()).containsExactly("artifactId", "version", "description");
+        assertThat(format.format(new String[] {"core", "1.0", null})).isEqualTo("core-1.0 core {description}");
+        assertThatThrownBy(() -> ProjectFormat.compileForValues("{groupId}", Arrays.asList("artifactId")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown placeholder '{groupId}'")
+                .hasMessageContaining("Known placeholders: {artifactId}");
+        assertThatThrownBy(() -> ProjectFormat.compileForValues("{property:x}", Arrays.asList("artifactId")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testUnknownPlaceholder() {
+        assertThatThrownBy(() -> ProjectFormat.compile("{groupId}:{artifact}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'{artifact}'")
+                .hasMessageContaining("{artifactId}");
+    }
+
+    @Test
+    void testAppendTo() {
+        StringBuilder sb = new StringBuilder("> ");
+        ProjectFormat.compile("{artifactId}").appendTo(sb, createProject());
+        assertThat(sb).hasToString("> test-artifact");
+    }
+
+    @Test
+    void testExtendedFields() {
+        MavenProject project = createProject();
+        Parent parent = new Parent();
+        parent.setGroupId("com.github.mikkoi");
+        parent.setArtifactId("parent");
+        parent.setVersion("1.0.0");
+        project.getModel().setParent(parent);
+        project.getModel().addModule("first");
+        project.getModel().addModule("second");
+        project.getModel().addDependency(new Dependency());
+        project.getProperties().setProperty("maven.compiler.release", "8");
+
+        ProjectFormat format = ProjectFormat.compile(
+                "{relPath}|{pomFile}|{parent}|{depCount}|{modules}|{property:maven.compiler.release}|{property:missing}",
+                ProjectFormat.fields(new File("/this")));
+        assertThat(format.format(project)).isEqualTo(String.join("|",
+                "base" + File.separator + "dir",
+                new File("/this/base/dir/pom.xml").getAbsolutePath(),
+                "com.github.mikkoi:parent:1.0.0",
+                "1",
+                "first,second",
+                "8",
+                "{property:missing}"));
+
+        assertThat(ProjectFormat.compile("{relPath}", ProjectFormat.fields(new File("/this/base/dir"))).format(project))
+                .isEqualTo(".");
+        assertThat(ProjectFormat.compile("{parent}").format(createProject())).isEmpty();
+    }
+
+    @Test
+    void testFieldsAreComputedLazily() {
+        AtomicInteger used = new AtomicInteger();
+        AtomicInteger unused = new AtomicInteger();
+        Map<String, Function<MavenProject, String>> fields = ProjectFormat.fields(null);
+        fields.put("used", project -> Integer.toString(used.incrementAndGet()));
+        fields.put("unused", project -> Integer.toString(unused.incrementAndGet()));
+
+        ProjectFormat format = ProjectFormat.compile("{used}-{used}", fields);
+        assertThat(format.format(createProject())).isEqualTo("1-1");
+        assertThat(format.format(createProject())).isEqualTo("2-2");
+        assertThat(used.get()).isEqualTo(2);
+        assertThat(unused.get()).isZero();
+    }
+}
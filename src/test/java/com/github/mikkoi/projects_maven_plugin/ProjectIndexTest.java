@@ -0,0 +1,157 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Parent;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProjectIndex.
+ */
+class ProjectIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MavenProject createProject(String artifactId, String packaging) throws IOException {
+        Path basedir = Files.createDirectories(tempDir.resolve(artifactId));
+        Path pom = Files.write(basedir.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8));
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging(packaging);
+        project.setName("Name of\t" + artifactId);
+        project.setFile(pom.toFile());
+        return project;
+    }
+
+    private static String run(int expectedExitCode, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = ProjectIndex.run(args, new PrintStream(out, true), new PrintStream(err, true));
+        assertThat(exitCode).as("exit code, stderr: %s", err).isEqualTo(expectedExitCode);
+        return (exitCode == 0 ? out : err).toString().replace(System.lineSeparator(), "\n");
+    }
+
+    @Test
+    void testWriteAndRead() throws IOException {
+        List<MavenProject> projects = Arrays.asList(createProject("root", "pom"), createProject("core", "jar"));
+        ProjectIndex index = ProjectIndex.of(projects);
+        Path indexFile = tempDir.resolve("target/projects-index.txt");
+        index.write(indexFile);
+
+        ProjectIndex read = ProjectIndex.read(indexFile);
+        assertThat(read.getKey()).isEqualTo(index.getKey());
+        assertThat(read.getEntries()).hasSize(2);
+        assertThat(read.getEntries().get(1).get("name")).isEqualTo("Name of\tcore");
+        assertThat(read.getEntries().get(1).get("description")).isNull();
+        assertThat(read.getEntries().get(1).getProjectId()).isEqualTo("com.github.mikkoi:core:jar");
+        assertThat(read.staleEntries()).isEmpty();
+        assertThat(ProjectIndex.of(projects).getKey()).isEqualTo(index.getKey());
+    }
+
+    @Test
+    void testRun() throws IOException {
+        List<MavenProject> projects = Arrays.asList(createProject("root", "pom"), createProject("core", "jar"));
+        Path indexFile = tempDir.resolve("projects-index.txt");
+        ProjectIndex.of(projects).write(indexFile);
+
+        assertThat(run(0, indexFile.toString()))
+                .isEqualTo("com.github.mikkoi:root:pom\ncom.github.mikkoi:core:jar\n");
+        assertThat(run(0, indexFile.toString(), "--sortOrder=alphabetic", "--printFormat={artifactId}-{version} {description}"))
+                .isEqualTo("core-1.0 {description}\nroot-1.0 {description}\n");
+        assertThat(run(1, indexFile.toString(), "--printFormat={artifactId} {unknown}"))
+                .contains("Unknown placeholder '{unknown}'");
+        assertThat(run(1, indexFile.toString(), "--printFormat={relPath}"))
+                .contains("Unknown placeholder '{relPath}'");
+        assertThat(run(0, indexFile.toString(), "--includes=*:*:jar"))
+                .isEqualTo("com.github.mikkoi:core:jar\n");
+        assertThat(run(0, indexFile.toString(), "--excludes=core"))
+                .isEqualTo("com.github.mikkoi:root:pom\n");
+        run(1, indexFile.toString(), "--unknown");
+        run(1, indexFile.toString(), "--sortOrder=random");
+        run(1, tempDir.resolve("missing.txt").toString());
+    }
+
+    @Test
+    void testStale() throws IOException {
+        MavenProject core = createProject("core", "jar");
+        Path indexFile = tempDir.resolve("projects-index.txt");
+        ProjectIndex index = ProjectIndex.of(Arrays.asList(createProject("root", "pom"), core));
+        index.write(indexFile);
+
+        File pom = core.getFile();
+        assertThat(pom.setLastModified(pom.lastModified() - 10_000L)).isTrue();
+
+        assertThat(ProjectIndex.read(indexFile).staleEntries())
+                .extracting(ProjectIndex.Entry::getPomFile)
+                .containsExactly(pom.getAbsolutePath());
+        assertThat(ProjectIndex.of(Arrays.asList(createProject("root", "pom"), core)).getKey())
+                .isNotEqualTo(index.getKey());
+        assertThat(run(ProjectIndex.EXIT_STALE, indexFile.toString()))
+                .contains(pom.getAbsolutePath());
+    }
+
+    @Test
+    void testRefresh() throws IOException {
+        MavenProject root = createProject("root", "pom");
+        root.setDescription("Old");
+        root.getModel().addModule("core");
+        MavenProject core = createProject("core", "jar");
+        core.setDescription("Old");
+        Parent parent = new Parent();
+        parent.setGroupId("com.github.mikkoi");
+        parent.setArtifactId("root");
+        parent.setVersion("1.0");
+        core.getModel().setParent(parent);
+        Path indexFile = tempDir.resolve("projects-index.txt");
+        ProjectIndex.of(Arrays.asList(root, core)).write(indexFile);
+
+        writePom(root, "<groupId>com.github.mikkoi</groupId><artifactId>root</artifactId><version>1.0</version>"
+                + "<packaging>pom</packaging><description>New</description><modules><module>core</module></modules>");
+        writePom(core, "<parent><groupId>com.github.mikkoi</groupId><artifactId>root</artifactId>"
+                + "<version>1.0</version></parent><artifactId>core</artifactId><name>Core</name>");
+        assertThat(run(0, indexFile.toString(), "--printFormat={artifactId} {name} {description} {parent}"))
+                .isEqualTo("root root New \ncore Core New com.github.mikkoi:root:1.0\n");
+        ProjectIndex refreshed = ProjectIndex.read(indexFile);
+        assertThat(refreshed.staleEntries()).isEmpty();
+        assertThat(refreshed.getKey()).isEqualTo(ProjectIndex.of(Arrays.asList(root, core)).getKey());
+
+        writePom(root, "<groupId>com.github.mikkoi</groupId><artifactId>root</artifactId><version>1.0</version>"
+                + "<packaging>pom</packaging><modules><module>core</module><module>api</module></modules>");
+        assertThat(run(ProjectIndex.EXIT_STALE, indexFile.toString()))
+                .contains("The modules of '" + root.getFile().getAbsolutePath() + "' has changed.");
+
+        writePom(root, "<groupId>com.github.mikkoi</groupId><artifactId>root</artifactId><version>${revision}</version>"
+                + "<packaging>pom</packaging><modules><module>core</module></modules>");
+        assertThat(run(ProjectIndex.EXIT_STALE, indexFile.toString()))
+                .contains("version");
+    }
+
+    private static void writePom(MavenProject project, String content) throws IOException {
+        File pom = project.getFile();
+        long lastModified = pom.lastModified();
+        Files.write(pom.toPath(), ("<project>" + content + "</project>").getBytes(StandardCharsets.UTF_8));
+        assertThat(pom.setLastModified(lastModified + 10_000L)).isTrue();
+    }
+
+    @Test
+    void testEscape() {
+        for (String value : new String[] {null, "", "plain", "a\\b", "\\N", "t\tn\nr\r"}) {
+            assertThat(ProjectIndex.unescape(ProjectIndex.escape(value))).isEqualTo(value);
+        }
+    }
+}
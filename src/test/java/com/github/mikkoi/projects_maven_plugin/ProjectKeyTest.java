@@ -0,0 +1,32 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProjectKey.
+ */
+class ProjectKeyTest {
+
+    @Test
+    void testEquality() {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId("core");
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("com.github.mikkoi");
+        dependency.setArtifactId("core");
+
+        ProjectKey key = ProjectKey.of("com.github.mikkoi", "core");
+        assertThat(ProjectKey.of(project)).isEqualTo(key).hasSameHashCodeAs(key);
+        assertThat(ProjectKey.of(dependency)).isEqualTo(key).hasSameHashCodeAs(key);
+        assertThat(key).hasToString("com.github.mikkoi:core");
+        assertThat(key.getGroupId()).isEqualTo("com.github.mikkoi");
+        assertThat(key.getArtifactId()).isEqualTo("core");
+        assertThat(ProjectKey.of("com.github.other", "core")).isNotEqualTo(key);
+        assertThat(ProjectKey.of("com.github.mikkoi:core", "")).isNotEqualTo(key);
+    }
+}
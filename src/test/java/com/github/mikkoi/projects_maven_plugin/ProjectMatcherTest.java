@@ -0,0 +1,138 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProjectMatcher.
+ */
+class ProjectMatcherTest {
+
+    @Test
+    void testSplitLiterals() {
+        assertThat(ProjectMatcher.splitLiterals("org\\.apache\\.maven:core:jar"))
+                .containsExactly("org.apache.maven:core:jar");
+        assertThat(ProjectMatcher.splitLiterals(".*:apache:.*"))
+                .containsExactly("", ":apache:", "");
+        assertThat(ProjectMatcher.splitLiterals("org\\.apache\\..*:.*:.*"))
+                .containsExactly("org.apache.", ":", ":", "");
+        assertThat(ProjectMatcher.splitLiterals(".*.*:a"))
+                .containsExactly("", ":a");
+        assertThat(ProjectMatcher.splitLiterals(".*:[ab]:.*")).isNull();
+        assertThat(ProjectMatcher.splitLiterals(".*:a+:.*")).isNull();
+    }
+
+    @Test
+    void testCompileOrAll() {
+        assertThat(ProjectMatcher.compileOrAll(null, null).isIncluded("g:a:jar")).isTrue();
+        assertThat(ProjectMatcher.compileOrAll(new ArrayList<>(), Collections.singletonList("a")).isIncluded("g:a:jar")).isFalse();
+        assertThat(ProjectMatcher.compileOrAll(new ArrayList<>(), Collections.singletonList("a")).isIncluded("g:b:jar")).isTrue();
+        assertThat(ProjectMatcher.compileOrAll(Collections.singletonList("b"), null).isIncluded("g:a:jar")).isFalse();
+        assertThat(ProjectMatcher.compile(null, null).isIncluded("g:a:jar")).isFalse();
+    }
+
+    @Test
+    void testCompilePatternChoosesFastPath() {
+        assertThat(ProjectMatcher.compilePattern("org.apache.maven:core:jar"))
+                .isInstanceOf(ProjectMatcher.GlobMatcher.class);
+        assertThat(((ProjectMatcher.GlobMatcher) ProjectMatcher.compilePattern("org.apache.maven:core:jar")).isLiteral())
+                .isTrue();
+        assertThat(ProjectMatcher.compilePattern("*")).isInstanceOf(ProjectMatcher.GlobMatcher.class);
+        assertThat(ProjectMatcher.compilePattern("*-it")).isInstanceOf(ProjectMatcher.GlobMatcher.class);
+        assertThat(ProjectMatcher.compilePattern("[ab]-it")).isInstanceOf(ProjectMatcher.RegexMatcher.class);
+    }
+
+    @Test
+    void testFastPathAgreesWithRegex() {
+        List<String> patterns = Arrays.asList(
+                "*", "apache", "core", "*core*", "org.apache.*:*", "org.apache.maven:core",
+                "org.apache.maven:core:jar", "org.apache.maven:core:pom", "*:*-it", "*-it:jar",
+                "c*e", "org*core*jar", "a*b*c", "", "*:", "org.apache.maven:*:jar");
+        List<String> projectIds = Arrays.asList(
+                "org.apache.maven:core:jar", "org.apache.maven:core:pom", "org.apache:apache:pom",
+                "com.github.mikkoi:core-it:jar", "com.github.mikkoi:x-it-foo:jar", "orgXapache:core:jar",
+                "a:b:c", "abc:b:c", "a::", "com.github.mikkoi:test-artifact:jar");
+        for (String pattern : patterns) {
+            String regex = MojoUtilities.convertStringForMatching(pattern);
+            ProjectMatcher.Matcher matcher = ProjectMatcher.compilePattern(pattern);
+            for (String projectId : projectIds) {
+                assertThat(matcher.matches(projectId))
+                        .as("pattern '%s', project id '%s'", pattern, projectId)
+                        .isEqualTo(projectId.matches(regex));
+            }
+        }
+    }
+
+    @Test
+    void testIsIncluded() {
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+        includes.add("com.github.mikkoi:*");
+        excludes.add("com.github.mikkoi:test-artifact");
+        excludes.add("*-other-artifact");
+        ProjectMatcher matcher = ProjectMatcher.compile(includes, excludes);
+
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.github.mikkoi");
+        project.setArtifactId("test-artifact");
+        project.setPackaging("jar");
+        assertThat(matcher.isIncluded(project)).isFalse();
+
+        project.setArtifactId("test-artifact-2");
+        assertThat(matcher.isIncluded(project)).isTrue();
+
+        project.setArtifactId("diff-other-artifact");
+        assertThat(matcher.isIncluded(project)).isFalse();
+
+        project.setGroupId("com.gitlab.other");
+        project.setArtifactId("test-artifact-2");
+        assertThat(matcher.isIncluded(project)).isFalse();
+    }
+
+    @Test
+    void testAutomatonAgreesWithLinear() {
+        List<String> includes = Arrays.asList("*", "org.apache.*:*", "c*e", "a*b*c", "*-it:jar", "[ab]:*");
+        List<String> excludes = Arrays.asList("org.apache.maven:core:pom", "*:x-*", "a::", "b+");
+        List<String> projectIds = Arrays.asList(
+                "org.apache.maven:core:jar", "org.apache.maven:core:pom", "org.apache:apache:pom",
+                "com.github.mikkoi:core-it:jar", "com.github.mikkoi:x-it-foo:jar", "orgXapache:core:jar",
+                "a:b:c", "abc:b:c", "a::", "com.github.mikkoi:test-artifact:jar", "g:\u00e4\u00f6:jar", "");
+        ProjectMatcher linear = ProjectMatcher.compile(includes, excludes, ProjectMatcher.Mode.LINEAR);
+        ProjectMatcher automaton = ProjectMatcher.compile(includes, excludes, ProjectMatcher.Mode.AUTOMATON);
+        assertThat(linear.usesAutomaton()).isFalse();
+        assertThat(automaton.usesAutomaton()).isTrue();
+        for (String projectId : projectIds) {
+            assertThat(automaton.isIncluded(projectId))
+                    .as("project id '%s'", projectId)
+                    .isEqualTo(linear.isIncluded(projectId));
+        }
+    }
+
+    @Test
+    void testAutomatonWithManyPatterns() {
+        List<String> excludes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            excludes.add("com.example:service-" + i);
+        }
+        ProjectMatcher matcher = ProjectMatcher.compile(Collections.singletonList("*"), excludes);
+        assertThat(matcher.usesAutomaton()).isTrue();
+        assertThat(matcher.isIncluded("com.example:service-999:jar")).isFalse();
+        assertThat(matcher.isIncluded("com.example:service-1000:jar")).isTrue();
+        assertThat(matcher.isIncluded("com.example:service-99:jar")).isFalse();
+        assertThat(matcher.isIncluded("com.other:service-99:jar")).isTrue();
+    }
+
+    @Test
+    void testEmptyAndNull() {
+        assertThat(ProjectMatcher.compile(null, null).isIncluded("a:b:jar")).isFalse();
+        assertThat(ProjectMatcher.compile(Collections.singletonList("*"), null).isIncluded("a:b:jar")).isTrue();
+        assertThat(ProjectMatcher.compile(Collections.singletonList("*"), null).getExcludePatterns()).isEmpty();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import com.soebes.itf.jupiter.extension.MavenCLIOptions;
+import com.soebes.itf.jupiter.extension.MavenGoal;
+import com.soebes.itf.jupiter.extension.MavenJupiterExtension;
+import com.soebes.itf.jupiter.extension.MavenOption;
+import com.soebes.itf.jupiter.extension.MavenProject;
+import com.soebes.itf.jupiter.extension.MavenRepository;
+import com.soebes.itf.jupiter.extension.MavenTest;
+import com.soebes.itf.jupiter.extension.SystemProperty;
+import com.soebes.itf.jupiter.maven.MavenExecutionResult;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.soebes.itf.extension.assertj.MavenITAssertions.assertThat;
+
+/**
+ * Integration tests for RdepsMojo.
+ */
+@MavenJupiterExtension
+public class RdepsMojoIT {
+
+    /*
+        Modules: api depends on core, web on api, app on web and core.
+     */
+    @Nested
+    @MavenProject      // Use same Maven project for all tests in this set.
+    @MavenGoal("${project.groupId}:${project.artifactId}:${project.version}:rdeps")
+    @MavenOption(MavenCLIOptions.BATCH_MODE)
+    @MavenOption(MavenCLIOptions.QUIET)
+    @MavenOption(MavenCLIOptions.VERBOSE)
+    @MavenRepository   // We can share the local repository because this plugin does not use it.
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class set_001 {
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/rdeps.txt")
+        @SystemProperty(value = "projects.rdeps.includes", content = "core")
+        @Order(1)
+        void the_first_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/rdeps.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly("com.github.mikkoi:api", "com.github.mikkoi:app");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/rdeps.txt")
+        @SystemProperty(value = "projects.rdeps.includes", content = "core")
+        @SystemProperty(value = "projects.rdeps.transitive", content = "true")
+        @SystemProperty(value = "projects.rdeps.printFormat", content = "{artifactId}")
+        @Order(2)
+        void the_second_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/rdeps.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly("api", "web", "app");
+        }
+
+        @MavenTest
+        @SystemProperty(value = "projects.outputFile", content = "target/rdeps.txt")
+        @SystemProperty(value = "projects.rdeps.includes", content = "*")
+        @SystemProperty(value = "projects.rdeps.excludes", content = "core")
+        @SystemProperty(value = "projects.rdeps.printFormat", content = "{artifactId}")
+        @Order(3)
+        void the_third_test_case(MavenExecutionResult result) throws IOException {
+            assertThat(result).isSuccessful();
+            Path outputFile = result.getMavenProjectResult().getTargetProjectDirectory().resolve("target/rdeps.txt");
+            org.assertj.core.api.Assertions.assertThat(Files.readAllLines(outputFile, StandardCharsets.UTF_8))
+                    .containsExactly("web", "app");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ReactorIndex.
+ */
+class ReactorIndexTest {
+
+    private static MavenProject createProject(String artifactId, String... dependencies) {
+        MavenProject project = ReactorOrderTest.createProject(artifactId);
+        for (String dependencyArtifactId : dependencies) {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId("g");
+            dependency.setArtifactId(dependencyArtifactId);
+            dependency.setVersion("1.0");
+            project.getDependencies().add(dependency);
+        }
+        return project;
+    }
+
+    private static List<String> artifactIds(ReactorIndex index, BitSet ids) {
+        return index.projects(ids).stream().map(MavenProject::getArtifactId).collect(Collectors.toList());
+    }
+
+    private static BitSet select(ReactorIndex index, String... artifactIds) {
+        List<String> selected = Arrays.asList(artifactIds);
+        return index.select(project -> selected.contains(project.getArtifactId()));
+    }
+
+    @Test
+    void testQueries() {
+        // d -> b -> a, d -> c -> a, e -> external, f -> f and a twice
+        ReactorIndex index = ReactorIndex.of(Arrays.asList(
+                createProject("a"),
+                createProject("b", "a"),
+                createProject("c", "a"),
+                createProject("d", "b", "c"),
+                createProject("e", "external"),
+                createProject("f", "f", "a", "a")));
+
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(artifactIds(index, index.dependencies(select(index, "d"), false))).containsExactly("b", "c");
+        assertThat(artifactIds(index, index.dependencies(select(index, "d"), true))).containsExactly("a", "b", "c");
+        assertThat(artifactIds(index, index.dependencies(select(index, "e"), true))).isEmpty();
+        assertThat(artifactIds(index, index.dependencies(select(index, "f"), true))).containsExactly("a");
+        assertThat(artifactIds(index, index.dependents(select(index, "a"), false))).containsExactly("b", "c", "f");
+        assertThat(artifactIds(index, index.dependents(select(index, "a"), true))).containsExactly("b", "c", "d", "f");
+        assertThat(artifactIds(index, index.dependents(select(index, "b"), true))).containsExactly("d");
+        // A selected project is listed only if another selected project reaches it.
+        assertThat(artifactIds(index, index.dependents(select(index, "a", "b"), false))).containsExactly("b", "c", "d", "f");
+        assertThat(artifactIds(index, index.dependents(select(index), true))).isEmpty();
+    }
+
+    @Test
+    void testVersionMismatch() {
+        // b depends on an earlier release of a, c on the version in the build
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b", "a");
+        b.getDependencies().get(0).setVersion("0.9");
+        List<MavenProject> projects = Arrays.asList(a, b, createProject("c", "a"));
+        ReactorIndex index = ReactorIndex.of(projects);
+
+        assertThat(artifactIds(index, index.dependencies(select(index, "b"), true))).isEmpty();
+        assertThat(artifactIds(index, index.dependents(select(index, "a"), true))).containsExactly("c");
+        assertThat(AddInternalMojo.dependentProjects(a, projects).stream().map(ProjectKey::getArtifactId).sorted()
+                .collect(Collectors.toList())).containsExactly("a", "c");
+    }
+
+    @Test
+    void testIds() {
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b", "a");
+        ReactorIndex index = ReactorIndex.of(Arrays.asList(a, b));
+        assertThat(index.id(a)).isZero();
+        assertThat(index.id(b)).isEqualTo(1);
+        assertThat(index.id(createProject("c"))).isEqualTo(-1);
+        assertThat(index.project(1)).isSameAs(b);
+    }
+
+    @Test
+    void testDependentProjects() {
+        MavenProject a = createProject("a");
+        List<MavenProject> projects = Arrays.asList(a, createProject("b", "a"), createProject("c", "b"), createProject("d"));
+        assertThat(AddInternalMojo.dependentProjects(a, projects).stream().map(ProjectKey::getArtifactId).sorted()
+                .collect(Collectors.toList())).containsExactly("a", "b", "c");
+        assertThat(AddInternalMojo.dependentProjects(createProject("x"), projects)).containsExactly(ProjectKey.of("g", "x"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ReactorOrder.
+ */
+class ReactorOrderTest {
+
+    /**
+     * Dependency graph with the projects in the given build order.
+     */
+    static final class TestGraph implements ProjectDependencyGraph {
+        private final List<MavenProject> sortedProjects = new ArrayList<>();
+        private final Map<MavenProject, List<MavenProject>> upstream = new HashMap<>();
+
+        TestGraph add(MavenProject project, MavenProject... dependencies) {
+            sortedProjects.add(project);
+            upstream.put(project, Arrays.asList(dependencies));
+            return this;
+        }
+
+        @Override
+        public List<MavenProject> getAllProjects() {
+            return sortedProjects;
+        }
+
+        @Override
+        public List<MavenProject> getSortedProjects() {
+            return sortedProjects;
+        }
+
+        @Override
+        public List<MavenProject> getDownstreamProjects(MavenProject project, boolean transitive) {
+            List<MavenProject> downstream = new ArrayList<>();
+            for (MavenProject other : sortedProjects) {
+                if (upstream.get(other).contains(project)) {
+                    downstream.add(other);
+                }
+            }
+            return downstream;
+        }
+
+        @Override
+        public List<MavenProject> getUpstreamProjects(MavenProject project, boolean transitive) {
+            return upstream.getOrDefault(project, Collections.<MavenProject>emptyList());
+        }
+    }
+
+    static MavenProject createProject(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("g");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging("jar");
+        return project;
+    }
+
+    private static List<String> sort(List<MavenProject> projects, SortOrder sortOrder, ProjectDependencyGraph graph) {
+        return MojoUtilities.selectProjects(projects, project -> true, sortOrder, graph)
+                .map(MavenProject::getArtifactId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testOrders() {
+        // e -> c -> a, d -> b, c -> b, f alone
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        MavenProject d = createProject("d");
+        MavenProject e = createProject("e");
+        MavenProject f = createProject("f");
+        TestGraph graph = new TestGraph().add(a).add(b).add(f).add(c, a, b).add(d, b).add(e, c);
+        List<MavenProject> projects = Arrays.asList(e, d, c, b, a, f);
+
+        ReactorOrder order = ReactorOrder.of(graph);
+        assertThat(order.getWave(a)).isZero();
+        assertThat(order.getWave(c)).isEqualTo(1);
+        assertThat(order.getWave(e)).isEqualTo(2);
+        assertThat(order.getWave(createProject("x"))).isNull();
+
+        assertThat(sort(projects, SortOrder.TOPOLOGICAL, graph)).containsExactly("a", "b", "f", "c", "d", "e");
+        assertThat(sort(projects, SortOrder.REVERSE_TOPOLOGICAL, graph)).containsExactly("e", "d", "c", "f", "b", "a");
+        assertThat(sort(projects, SortOrder.WAVES, graph)).containsExactly("a", "b", "f", "c", "d", "e");
+        // Projects not in the graph come last
+        assertThat(sort(Arrays.asList(createProject("x"), e, a), SortOrder.REVERSE_TOPOLOGICAL, graph)).containsExactly("e", "a", "x");
+    }
+
+    @Test
+    void testNoGraph() {
+        assertThat(SortOrder.of("reverse-topological")).isEqualTo(SortOrder.REVERSE_TOPOLOGICAL);
+        assertThat(SortOrder.WAVES.isGraphOrder()).isTrue();
+        assertThat(SortOrder.ALPHABETIC.isGraphOrder()).isFalse();
+        List<MavenProject> projects = Collections.singletonList(createProject("a"));
+        assertThatThrownBy(() -> sort(projects, SortOrder.WAVES, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Sort order 'waves' needs the project dependency graph");
+    }
+}
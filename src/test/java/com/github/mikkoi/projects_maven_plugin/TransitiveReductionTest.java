@@ -0,0 +1,114 @@
+package com.github.mikkoi.projects_maven_plugin;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TransitiveReduction.
+ */
+class TransitiveReductionTest {
+
+    private static MavenProject createProject(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("g");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging("jar");
+        return project;
+    }
+
+    private static Dependency dependency(MavenProject project, String scope) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(project.getGroupId());
+        dependency.setArtifactId(project.getArtifactId());
+        dependency.setVersion(project.getVersion());
+        dependency.setScope(scope);
+        return dependency;
+    }
+
+    private static List<String> reduce(List<MavenProject> projects, String scope) {
+        List<Dependency> dependencies = new ArrayList<>();
+        for (MavenProject project : projects) {
+            dependencies.add(dependency(project, scope));
+        }
+        List<String> artifactIds = new ArrayList<>();
+        for (Dependency dependency : TransitiveReduction.reduce(dependencies, projects)) {
+            artifactIds.add(dependency.getArtifactId());
+        }
+        return artifactIds;
+    }
+
+    @Test
+    void testChain() {
+        // a -> b -> c, d alone
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        MavenProject d = createProject("d");
+        a.getModel().addDependency(dependency(b, null));
+        b.getModel().addDependency(dependency(c, "compile"));
+        List<MavenProject> projects = Arrays.asList(c, b, a, d);
+        assertThat(reduce(projects, "compile")).containsExactly("a", "d");
+        assertThat(reduce(projects, "test")).containsExactly("a", "d");
+    }
+
+    @Test
+    void testScopes() {
+        // a -runtime-> b, a -test-> c, a -optional-> d
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        MavenProject d = createProject("d");
+        a.getModel().addDependency(dependency(b, "runtime"));
+        a.getModel().addDependency(dependency(c, "test"));
+        Dependency optional = dependency(d, "compile");
+        optional.setOptional(true);
+        a.getModel().addDependency(optional);
+        List<MavenProject> projects = Arrays.asList(b, c, d, a);
+        // Runtime dependency would make b runtime, not compile.
+        assertThat(reduce(projects, "compile")).containsExactly("b", "c", "d", "a");
+        assertThat(reduce(projects, "runtime")).containsExactly("c", "d", "a");
+    }
+
+    @Test
+    void testExclusionsAndTypes() {
+        // a -(exclusions)-> b -> c, a -> test-jar of d
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        MavenProject d = createProject("d");
+        Dependency withExclusions = dependency(b, "compile");
+        Exclusion exclusion = new Exclusion();
+        exclusion.setGroupId("g");
+        exclusion.setArtifactId("c");
+        withExclusions.addExclusion(exclusion);
+        a.getModel().addDependency(withExclusions);
+        b.getModel().addDependency(dependency(c, "compile"));
+        Dependency testJar = dependency(d, "compile");
+        testJar.setType("test-jar");
+        a.getModel().addDependency(testJar);
+        assertThat(reduce(Arrays.asList(a, b, c, d), "compile")).containsExactly("a", "b", "d");
+    }
+
+    @Test
+    void testDiamond() {
+        // a -> b -> d, a -> c -> d
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        MavenProject d = createProject("d");
+        a.getModel().addDependency(dependency(b, "compile"));
+        a.getModel().addDependency(dependency(c, "compile"));
+        b.getModel().addDependency(dependency(d, "compile"));
+        c.getModel().addDependency(dependency(d, "compile"));
+        assertThat(reduce(Arrays.asList(d, c, b, a), "compile")).containsExactly("a");
+    }
+}
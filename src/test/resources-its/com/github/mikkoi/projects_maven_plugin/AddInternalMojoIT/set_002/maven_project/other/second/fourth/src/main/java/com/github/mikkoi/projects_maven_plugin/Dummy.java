@@ -0,0 +1,8 @@
+package com.github.mikkoi.maven.plugin.projecthelper;
+
+public class Dummy
+{
+    public static void main(String args[]) {
+        System.out.println("Hello, Dummy!");
+    }
+}
\ No newline at end of file